@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "org.example"
@@ -16,4 +17,23 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
+    systemProperty("blackjack.metrics", "true") // so the instrumented paths are tested too
+    // DifferentialTests only runs against another build, e.g.
+    // `./gradlew test -Pdifferential.baseline=../parent/build/classes/java/main`.
+    for (name in listOf("differential.baseline", "differential.current", "differential.sessions")) {
+        providers.gradleProperty(name).orNull?.let { systemProperty(name, it) }
+    }
+}
+
+// Benchmarks live in src/jmh; run them with `./gradlew jmh`, or a subset
+// with e.g. `./gradlew jmh -Pjmh.includes=Deck`.
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc") // reports bytes/op alongside the timings
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    warmup.set("1s")
+    timeOnIteration.set("1s")
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
 }
@@ -0,0 +1,42 @@
+package oop.practical.blackjack.lisp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LispBenchmark {
+
+    private static final String ROUND = "(do (deck :2S :10H :AC :7D :5C :9H) (deal) (hit) (stand) (inspect :player) (inspect :dealer))";
+
+    @Param({"command", "round", "session"})
+    public String script;
+
+    private String input;
+
+    @Setup
+    public void setup() {
+        input = switch (script) {
+            case "command" -> "(deal :2S :10H :AC :7D)";
+            case "round" -> ROUND;
+            // a hundred rounds in one form, as a replayed session would be
+            case "session" -> "(do " + (ROUND + " ").repeat(100) + ")";
+            default -> throw new AssertionError(script);
+        };
+    }
+
+    @Benchmark
+    public Ast parse() throws ParseException {
+        return Lisp.parse(input);
+    }
+
+}
@@ -0,0 +1,54 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Ast;
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full deal-hit-stand round, executed from source, from a parsed Ast and
+ * from a compiled {@link Plan}. Every round sets its own deck, so the same
+ * Commands can be reused without the results drifting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandsBenchmark {
+
+    private static final String ROUND = "(do (deck :2S :10H :AC :7D :5C :9H) (deal) (hit) (stand) (inspect :player) (inspect :dealer))";
+
+    private Commands commands;
+    private Ast ast;
+    private Plan plan;
+
+    @Setup
+    public void setup() throws ParseException {
+        commands = new Commands(1);
+        ast = Lisp.parse(ROUND);
+        plan = Plan.compile(ast);
+    }
+
+    @Benchmark
+    public String parseAndExecute() throws ParseException {
+        return commands.execute(Lisp.parse(ROUND));
+    }
+
+    @Benchmark
+    public String execute() {
+        return commands.execute(ast);
+    }
+
+    @Benchmark
+    public String plan() {
+        return plan.execute(commands);
+    }
+
+}
@@ -0,0 +1,61 @@
+package oop.practical.blackjack.solution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeckBenchmark {
+
+    private Deck deck;
+    private Shoe shoe;
+
+    @Setup
+    public void setup() {
+        deck = new Deck(new SplittableRandom(1));
+        shoe = new Shoe(6, Shoe.DEFAULT_PENETRATION, new SplittableRandom(1));
+    }
+
+    @Benchmark
+    public void shuffle() {
+        deck.shuffle();
+    }
+
+    @Benchmark
+    public void shuffleShoe() {
+        shoe.reshuffle();
+    }
+
+    /**
+     * Deals the whole deck, per card, then puts it back in O(1).
+     */
+    @Benchmark
+    @OperationsPerInvocation(Card.COUNT)
+    public void dealCard(Blackhole blackhole) {
+        for (int i = 0; i < Card.COUNT; i++) {
+            blackhole.consume(deck.dealCard());
+        }
+        deck.collect();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Card.COUNT)
+    public void deal(Blackhole blackhole) {
+        for (int i = 0; i < Card.COUNT; i++) {
+            blackhole.consume(deck.deal());
+        }
+        deck.collect();
+    }
+
+}
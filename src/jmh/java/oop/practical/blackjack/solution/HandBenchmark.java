@@ -0,0 +1,62 @@
+package oop.practical.blackjack.solution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a hand of two to five random cards and evaluates it, cycling
+ * through pregenerated hands so the branches aren't perfectly predicted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandBenchmark {
+
+    private static final int HANDS = 1024;
+
+    private final Hand hand = new Hand();
+    private final Dealer dealer = new Dealer();
+    private int[][] cards;
+    private int next;
+
+    @Setup
+    public void setup() {
+        var random = new SplittableRandom(1);
+        cards = new int[HANDS][];
+        for (int i = 0; i < HANDS; i++) {
+            cards[i] = random.ints(2 + random.nextInt(4), 0, Card.COUNT).toArray();
+        }
+    }
+
+    private int[] nextCards() {
+        next = (next + 1) & (HANDS - 1);
+        return cards[next];
+    }
+
+    @Benchmark
+    public int handValue() {
+        hand.clear();
+        for (int card : nextCards()) {
+            hand.addCard(card);
+        }
+        return hand.isSoft() ? -hand.getValue() : hand.getValue();
+    }
+
+    @Benchmark
+    public int dealerValue() {
+        dealer.reset();
+        for (int card : nextCards()) {
+            dealer.addCard(card);
+        }
+        return dealer.calculateHandValue();
+    }
+
+}
@@ -0,0 +1,68 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The round from {@link CommandsBenchmark}, executed from source directly and
+ * through a {@link Journal}, so the difference is the cost of journaling it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JournalBenchmark {
+
+    private static final String ROUND = "(do (deck :2S :10H :AC :7D :5C :9H) (deal) (hit) (stand) (inspect :player) (inspect :dealer))";
+
+    @Param({"NONE", "GROUP", "ALWAYS"})
+    public Journal.Sync sync;
+
+    private Path directory;
+    private Commands commands;
+    private Journal journal;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("journal");
+        commands = new Commands(1);
+        journal = new Journal(directory, sync);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public String execute() throws ParseException {
+        return commands.execute(Lisp.parse(ROUND));
+    }
+
+    @Benchmark
+    public String journal() throws ParseException, IOException {
+        return journal.execute(ROUND);
+    }
+
+}
@@ -0,0 +1,142 @@
+package oop.practical.blackjack;
+
+import oop.practical.blackjack.lisp.Ast;
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+import oop.practical.blackjack.solution.Commands;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Executes a file of commands, one per line as in {@link Main}, with parsing
+ * and execution pipelined: a parser thread reads and parses lines while the
+ * calling thread executes them, with a bounded queue in between so the
+ * parser can't run arbitrarily far ahead. Lines are handed over in chunks,
+ * so the queue is touched once per chunk rather than once per command.
+ */
+public final class Batch {
+
+    private static final int CHUNK = 1024; // lines per hand-off
+    private static final int CHUNKS = 16; // chunks the parser may be ahead by
+
+    /**
+     * A parsed line, or the output reporting why it couldn't be parsed.
+     */
+    private record Parsed(Ast ast, String error) {}
+
+    private static final List<Parsed> END = List.of();
+
+    private Batch() {}
+
+    /**
+     * Executes every line of the input up to the end or a line reading
+     * "exit", writing each command's output on its own line, and returns the
+     * number of lines executed. The output is not flushed.
+     */
+    public static long run(BufferedReader input, Commands commands, Writer output) throws IOException {
+        BlockingQueue<List<Parsed>> queue = new ArrayBlockingQueue<>(CHUNKS);
+        var parser = new Parser(input, queue);
+        var thread = Thread.ofPlatform().name("batch-parse").daemon().start(parser);
+        long count = 0;
+        try {
+            while (true) {
+                List<Parsed> chunk = queue.take();
+                if (chunk == END) {
+                    break;
+                }
+                for (Parsed parsed : chunk) {
+                    output.write(execute(commands, parsed));
+                    output.write('\n');
+                }
+                count += chunk.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while executing.", e);
+        } finally {
+            // stops the parser if execution failed, so it isn't left blocked on the queue
+            thread.interrupt();
+        }
+        Throwable failure = parser.failure;
+        if (failure instanceof IOException e) {
+            throw e;
+        } else if (failure instanceof RuntimeException e) {
+            throw e;
+        } else if (failure instanceof Error e) {
+            throw e;
+        }
+        return count;
+    }
+
+    private static String execute(Commands commands, Parsed parsed) {
+        if (parsed.error() != null) {
+            return parsed.error();
+        }
+        try {
+            return commands.execute(parsed.ast());
+        } catch (Exception e) {
+            return "Unexpected exception: " + e.getMessage();
+        }
+    }
+
+    private static final class Parser implements Runnable {
+        private final BufferedReader input;
+        private final BlockingQueue<List<Parsed>> queue;
+        private volatile Throwable failure;
+
+        private Parser(BufferedReader input, BlockingQueue<List<Parsed>> queue) {
+            this.input = input;
+            this.queue = queue;
+        }
+
+        /**
+         * Parses every line and then hands over END. Whatever stops it early
+         * is recorded for run to throw, and END is still handed over, since
+         * run would otherwise wait for it forever.
+         */
+        @Override
+        public void run() {
+            try {
+                try {
+                    var chunk = new ArrayList<Parsed>(CHUNK);
+                    String line;
+                    while ((line = input.readLine()) != null && !line.equals("exit")) {
+                        chunk.add(parse(line));
+                        if (chunk.size() == CHUNK) {
+                            queue.put(chunk);
+                            chunk = new ArrayList<>(CHUNK);
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        queue.put(chunk);
+                    }
+                } catch (IOException | RuntimeException | Error e) {
+                    failure = e;
+                }
+                queue.put(END);
+            } catch (InterruptedException e) {
+                // execution stopped; nobody is waiting for the rest
+            }
+        }
+
+        private static Parsed parse(String line) {
+            try {
+                return new Parsed(Lisp.parse(line), null);
+            } catch (ParseException e) {
+                return new Parsed(null, "Error parsing input: " + e.getMessage());
+            } catch (StackOverflowError e) {
+                // the parser recurses once per nested form, so a line can nest too deeply
+                return new Parsed(null, "Error parsing input: Too deeply nested.");
+            } catch (Exception e) {
+                return new Parsed(null, "Unexpected exception: " + e.getMessage());
+            }
+        }
+    }
+
+}
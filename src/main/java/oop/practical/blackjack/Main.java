@@ -3,12 +3,38 @@ package oop.practical.blackjack;
 import oop.practical.blackjack.lisp.Lisp;
 import oop.practical.blackjack.lisp.ParseException;
 import oop.practical.blackjack.solution.Commands;
+import oop.practical.blackjack.solution.Journal;
 
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Scanner;
 
 public final class Main {
 
-    public static void main(String[] args) {
+    private static final int DEFAULT_PORT = 4321;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--batch")) {
+            batch(Path.of(args[1]));
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--journal")) {
+            var sync = args.length > 2 ? Journal.Sync.valueOf(args[2].toUpperCase(Locale.ROOT)) : Journal.Sync.GROUP;
+            journal(Path.of(args[1]), sync);
+            return;
+        }
         var commands = new Commands();
         var scanner = new Scanner(System.in);
         while (true) {
@@ -27,4 +53,62 @@ public final class Main {
         }
     }
 
+    /**
+     * Executes a file of commands with {@link Batch}, writing the outputs to
+     * standard output and the throughput to standard error.
+     */
+    private static void batch(Path path) throws IOException {
+        var commands = new Commands();
+        // one large buffer over the raw descriptor rather than System.out's per-line flushing
+        var output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16);
+        try (var input = Files.newBufferedReader(path)) {
+            long start = System.nanoTime();
+            long count = Batch.run(input, commands, output);
+            output.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf(Locale.ROOT, "Executed %d commands in %.3f s (%.0f commands/s).%n", count, seconds, count / seconds);
+        }
+    }
+
+    /**
+     * Runs the same loop as {@link #main}, journaling every command to the
+     * given directory and carrying on from the session already there.
+     */
+    private static void journal(Path directory, Journal.Sync sync) throws IOException {
+        try (var journal = new Journal(directory, sync)) {
+            if (journal.getRecovered() > 0) {
+                System.err.println("Recovered " + journal.getRecovered() + " commands from the journal.");
+            }
+            var scanner = new Scanner(System.in);
+            while (true) {
+                var input = scanner.nextLine();
+                if (input.equals("exit")) {
+                    break;
+                }
+                try {
+                    System.out.println(journal.execute(input));
+                } catch (ParseException e) {
+                    System.out.println("Error parsing input: " + e.getMessage());
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    System.out.println("Unexpected exception: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a {@link Server} until "exit" is entered.
+     */
+    private static void serve(int port) throws IOException {
+        try (var server = new Server(port, 100_000, Duration.ofMinutes(10))) {
+            System.out.println("Listening on port " + server.getPort() + ".");
+            var scanner = new Scanner(System.in);
+            while (!scanner.nextLine().equals("exit")) {
+                System.out.println(server.getSessionCount() + " sessions.");
+            }
+        }
+    }
+
 }
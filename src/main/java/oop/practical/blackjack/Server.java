@@ -0,0 +1,201 @@
+package oop.practical.blackjack;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+import oop.practical.blackjack.solution.Commands;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves a {@link Commands} session to each connection on the loopback
+ * interface, each on its own virtual thread. Every line a client sends is a
+ * command, answered with its output followed by an empty line (so an empty
+ * output is just the empty line), and "exit" ends the session.
+ *
+ * <p>Sessions idle for longer than the timeout are closed. At most
+ * maxSessions are served at once; further connections wait in the accept
+ * backlog until a session ends, and a client that stops reading only blocks
+ * its own session, so load can't grow without bound.
+ */
+public final class Server implements Closeable {
+
+    private static final int MAX_LINE = 64 * 1024;
+
+    private final ServerSocket socket;
+    private final int idleTimeout;
+    private final Semaphore permits;
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    /**
+     * Starts listening on the given port, or any free port if 0.
+     */
+    public Server(int port, int maxSessions, Duration idleTimeout) throws IOException {
+        this.socket = new ServerSocket(port, maxSessions, InetAddress.getLoopbackAddress());
+        this.idleTimeout = Math.toIntExact(idleTimeout.toMillis());
+        this.permits = new Semaphore(maxSessions);
+        this.acceptor = Thread.ofVirtual().name("server-accept").start(this::accept);
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Socket client;
+            try {
+                client = socket.accept();
+            } catch (IOException e) {
+                permits.release();
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            var session = new Session(ids.incrementAndGet(), client);
+            sessions.put(session.id, session);
+            Thread.ofVirtual().name("session-" + session.id).start(() -> serve(session));
+        }
+    }
+
+    private void serve(Session session) {
+        try (session) {
+            session.run();
+        } catch (IOException e) {
+            // the client went away; there's nobody left to tell
+        } finally {
+            sessions.remove(session.id);
+            permits.release();
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes every session.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        acceptor.interrupt();
+        socket.close();
+        for (var session : sessions.values()) {
+            session.close();
+        }
+    }
+
+    private final class Session implements Closeable {
+        private final long id;
+        private final Socket socket;
+        private final Commands commands = new Commands();
+        // a small line buffer of our own instead of a BufferedReader, so idle sessions stay cheap
+        private byte[] buffer = new byte[256];
+        private int start;
+        private int end;
+
+        private Session(long id, Socket socket) {
+            this.id = id;
+            this.socket = socket;
+        }
+
+        private void run() throws IOException {
+            socket.setSoTimeout(idleTimeout);
+            socket.setTcpNoDelay(true);
+            var in = socket.getInputStream();
+            var out = socket.getOutputStream();
+            while (true) {
+                String line;
+                try {
+                    line = readLine(in);
+                } catch (SocketTimeoutException e) {
+                    write(out, "Session closed: idle.");
+                    return;
+                }
+                if (line == null || line.equals("exit")) {
+                    return;
+                }
+                write(out, execute(line));
+            }
+        }
+
+        private String execute(String line) {
+            try {
+                return commands.execute(Lisp.parse(line));
+            } catch (ParseException e) {
+                return "Error parsing input: " + e.getMessage();
+            } catch (Exception e) {
+                return "Unexpected exception: " + e.getMessage();
+            }
+        }
+
+        private static void write(OutputStream out, String output) throws IOException {
+            out.write((output.isEmpty() ? "\n" : output + "\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Returns the next line without its terminator, or null at the end
+         * of the stream.
+         */
+        private String readLine(InputStream in) throws IOException {
+            int scanned = start;
+            while (true) {
+                for (; scanned < end; scanned++) {
+                    if (buffer[scanned] == '\n') {
+                        int length = scanned > start && buffer[scanned - 1] == '\r' ? scanned - 1 - start : scanned - start;
+                        var line = new String(buffer, start, length, StandardCharsets.UTF_8);
+                        start = scanned + 1;
+                        return line;
+                    }
+                }
+                if (start > 0) {
+                    // compact, keeping the partial line at the front
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    end -= start;
+                    scanned -= start;
+                    start = 0;
+                }
+                if (end == buffer.length) {
+                    if (buffer.length >= MAX_LINE) {
+                        throw new IOException("Line too long.");
+                    }
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int read = in.read(buffer, end, buffer.length - end);
+                if (read == -1) {
+                    return null;
+                }
+                end += read;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package oop.practical.blackjack.lisp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads top-level forms from a character stream, see {@link Lisp#parseAll}.
+ * I/O errors from the underlying reader are rethrown as
+ * {@link java.io.UncheckedIOException}.
+ */
+public final class AstReader implements Closeable {
+
+    private final Parser parser;
+    private final Reader reader;
+
+    AstReader(Parser parser, Reader reader) {
+        this.parser = parser;
+        this.reader = reader;
+    }
+
+    public boolean hasNext() {
+        return parser.hasNext();
+    }
+
+    /**
+     * Parses the next form. After a {@link ParseException} the reader resumes
+     * from wherever parsing stopped, skipping a token that cannot start an
+     * expression, so a malformed form may produce several errors.
+     */
+    public Ast next() throws ParseException {
+        return parser.parse();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
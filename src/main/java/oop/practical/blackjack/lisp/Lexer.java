@@ -1,47 +1,80 @@
 package oop.practical.blackjack.lisp;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 final class Lexer {
 
+    //Character classes are precomputed into an ASCII table of bit flags so
+    //classifying a character is a single array read (no regex, no boxing).
+    private static final int WHITESPACE = 1;
+    private static final int DIGIT = 1 << 1;
+    private static final int SIGN = 1 << 2;
+    private static final int IDENTIFIER = 1 << 3;
+
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        define(WHITESPACE, " \n\r");
+        define(DIGIT, "0123456789");
+        define(SIGN, "+-");
+        define(IDENTIFIER, "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789_+-*/<>=.:!?");
+    }
+
     private final CharStream chars;
 
     Lexer(String input) {
-        chars = new CharStream(input);
+        chars = new CharStream(input.toCharArray(), null);
+    }
+
+    Lexer(Reader reader) {
+        chars = new CharStream(new char[CharStream.CHUNK_SIZE], reader);
     }
 
     List<Token> lex() {
         var tokens = new ArrayList<Token>();
-        while (chars.has(0)) {
-            while (match("[ \n\r\r]")) {}
-            chars.emit(Token.Type.OPERATOR);
-            if (peek("[0-9]") || peek("[+\\-]", "[0-9]")) {
-                tokens.add(lexNumber());
-            } else if (peek("[A-Za-z0-9_+\\-*/<>=.:!?]")) {
-                tokens.add(lexIdentifier());
-            } else if (chars.has(0)) {
-                tokens.add(lexOperator());
-            }
+        for (var token = next(); token != null; token = next()) {
+            tokens.add(token);
         }
         return tokens;
     }
 
+    /**
+     * Returns the next token, or {@code null} at the end of input. Reader
+     * input is consumed lazily, so only the current token is buffered.
+     */
+    Token next() {
+        while (match(WHITESPACE)) {}
+        chars.skip();
+        if (peek(DIGIT) || peek(SIGN, DIGIT)) {
+            return lexNumber();
+        } else if (peek(IDENTIFIER)) {
+            return lexIdentifier();
+        } else if (chars.has(0)) {
+            return lexOperator();
+        }
+        return null;
+    }
+
     private Token lexNumber() {
-        match("[+\\-]");
-        while (match("[0-9]")) {}
-        if (match('.', "[0-9]")) {
-            while (match("[0-9]")) {}
+        match(SIGN);
+        while (match(DIGIT)) {}
+        if (match('.', DIGIT)) {
+            while (match(DIGIT)) {}
         }
-        if (match("e")) {
-            match("[+\\-]");
-            while (match("[0-9]")) {}
+        if (match('e')) {
+            match(SIGN);
+            while (match(DIGIT)) {}
         }
         return chars.emit(Token.Type.NUMBER);
     }
 
     private Token lexIdentifier() {
-        while (match("[A-Za-z0-9_+\\-*/<>=.:!?]")) {}
+        while (match(IDENTIFIER)) {}
         return chars.emit(Token.Type.IDENTIFIER);
     }
 
@@ -50,64 +83,124 @@ final class Lexer {
         return chars.emit(Token.Type.OPERATOR);
     }
 
-    private boolean peek(Object... objects) {
-        for (var i = 0; i < objects.length; i++) {
-            if (!chars.has(i) || !test(objects[i], chars.get(i))) {
-                return false;
-            }
+    private boolean peek(int type) {
+        return chars.has(0) && test(type, chars.get(0));
+    }
+
+    private boolean peek(int first, int second) {
+        return chars.has(1) && test(first, chars.get(0)) && test(second, chars.get(1));
+    }
+
+    private boolean match(int type) {
+        var peek = peek(type);
+        if (peek) {
+            chars.advance(1);
+        }
+        return peek;
+    }
+
+    private boolean match(char character) {
+        var peek = chars.has(0) && chars.get(0) == character;
+        if (peek) {
+            chars.advance(1);
         }
-        return true;
+        return peek;
     }
 
-    private boolean match(Object... objects) {
-        var peek = peek(objects);
+    private boolean match(char character, int type) {
+        var peek = chars.has(1) && chars.get(0) == character && test(type, chars.get(1));
         if (peek) {
-            chars.advance(objects.length);
+            chars.advance(2);
         }
         return peek;
     }
 
-    private static boolean test(Object object, char character) {
-        return switch (object) {
-            case Character c -> character == c;
-            case String regex -> Character.toString(character).matches(regex);
-            case List<?> options -> options.stream().anyMatch(o -> test(o, character));
-            default -> throw new AssertionError(object);
-        };
+    private static boolean test(int type, char character) {
+        return character < CLASSES.length && (CLASSES[character] & type) != 0;
+    }
+
+    private static void define(int type, String characters) {
+        for (var i = 0; i < characters.length(); i++) {
+            CLASSES[characters.charAt(i)] |= (byte) type;
+        }
     }
 
     private static final class CharStream {
 
-        private final String input;
+        private static final int CHUNK_SIZE = 8192;
+
+        private final Reader reader;
+        private boolean exhausted;
+        private char[] buffer;
+        private int limit;
         private int index = 0;
         private int length = 0;
 
-        private CharStream(String input) {
-            this.input = input;
+        private CharStream(char[] buffer, Reader reader) {
+            this.buffer = buffer;
+            this.reader = reader;
+            this.exhausted = reader == null;
+            this.limit = exhausted ? buffer.length : 0;
         }
 
         public boolean has(int offset) {
-            return index + length + offset < input.length();
+            return index + length + offset < limit || fill(offset);
         }
 
         public char get(int offset) {
             if (!has(offset)) {
                 throw new IllegalArgumentException("Broken lexer invariant.");
             }
-            return input.charAt(index + length + offset);
+            return buffer[index + length + offset];
         }
 
         public void advance(int chars) {
             length += chars;
         }
 
-        public Token emit(Token.Type type) {
-            var token = new Token(type, input.substring(index, index + length));
+        public void skip() {
             index += length;
             length = 0;
+        }
+
+        public Token emit(Token.Type type) {
+            var token = new Token(type, new String(buffer, index, length));
+            skip();
             return token;
         }
 
+        /**
+         * Reads from the reader until the offset is buffered, discarding
+         * everything before the current token first so the buffer only grows
+         * for tokens longer than a chunk.
+         */
+        private boolean fill(int offset) {
+            if (exhausted) {
+                return false;
+            }
+            try {
+                while (index + length + offset >= limit) {
+                    if (index > 0) {
+                        System.arraycopy(buffer, index, buffer, 0, limit - index);
+                        limit -= index;
+                        index = 0;
+                    }
+                    if (limit == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    var read = reader.read(buffer, limit, buffer.length - limit);
+                    if (read == -1) {
+                        exhausted = true;
+                        return false;
+                    }
+                    limit += read;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
     }
 
 }
@@ -1,9 +1,19 @@
 package oop.practical.blackjack.lisp;
 
+import java.io.Reader;
+
 public final class Lisp {
 
     public static Ast parse(String input) throws ParseException {
-        return new Parser(new Lexer(input).lex()).parse();
+        return new Parser(new Lexer(input)).parse();
+    }
+
+    /**
+     * Returns a reader over the top-level forms of the input, which are lexed
+     * and parsed one at a time so memory does not depend on the input size.
+     */
+    public static AstReader parseAll(Reader reader) {
+        return new AstReader(new Parser(new Lexer(reader)), reader);
     }
 
 }
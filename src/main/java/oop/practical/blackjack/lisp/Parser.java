@@ -8,8 +8,12 @@ final class Parser {
 
     private final TokenStream tokens;
 
-    Parser(List<Token> tokens) {
-        this.tokens = new TokenStream(tokens);
+    Parser(Lexer lexer) {
+        this.tokens = new TokenStream(lexer);
+    }
+
+    boolean hasNext() {
+        return tokens.has(0);
     }
 
     Ast parse() throws ParseException {
@@ -31,7 +35,9 @@ final class Parser {
             }
             return new Ast.Function(name, arguments);
         } else if (tokens.has(0)) {
-            throw new ParseException("Expected an expression at token " + tokens.index + ", received " + tokens.get(0) + ".");
+            var message = "Expected an expression at token " + tokens.index + ", received " + tokens.get(0) + ".";
+            tokens.advance(1); //skip the token so streamed input can resume
+            throw new ParseException(message);
         } else {
             throw new ParseException("Unexpected end of input at token " + tokens.index + ".");
         }
@@ -65,25 +71,42 @@ final class Parser {
 
     private static final class TokenStream {
 
-        private final List<Token> tokens;
+        private final Lexer lexer;
+        private final List<Token> lookahead = new ArrayList<>();
+        private Token previous = null;
+        private boolean exhausted = false;
         private int index = 0;
 
-        private TokenStream(List<Token> tokens) {
-            this.tokens = tokens;
+        private TokenStream(Lexer lexer) {
+            this.lexer = lexer;
         }
 
         public boolean has(int offset) {
-            return index + offset < tokens.size();
+            if (offset < 0) {
+                return previous != null && offset == -1;
+            }
+            while (lookahead.size() <= offset && !exhausted) {
+                var token = lexer.next();
+                if (token == null) {
+                    exhausted = true;
+                } else {
+                    lookahead.add(token);
+                }
+            }
+            return offset < lookahead.size();
         }
 
         public Token get(int offset) {
             if (!has(offset)) {
                 throw new IllegalArgumentException("Broken lexer invariant.");
             }
-            return tokens.get(index + offset);
+            return offset == -1 ? previous : lookahead.get(offset);
         }
 
         public void advance(int tokens) {
+            for (var i = 0; i < tokens; i++) {
+                previous = lookahead.removeFirst();
+            }
             index += tokens;
         }
 
@@ -0,0 +1,123 @@
+package oop.practical.blackjack.solution;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The best action for every state of a hand under the rules {@link Game}
+ * implements, so advice is a single array lookup. A state is the hand's
+ * total and whether it's soft, whether it has more than two cards or is a
+ * pair that can still be split, whether the dealer has already played (see
+ * {@link Game#hasDealerPlayed()}) and the dealer's up-card.
+ *
+ * <p>The table is computed by {@link BasicStrategyCalculator} for an infinite
+ * deck and shipped as the {@value #RESOURCE} resource, packed four actions to
+ * a byte. Run {@link #main} to regenerate it after changing the rules.
+ */
+public final class BasicStrategy implements Strategy {
+
+    static final int MULTI_CARD = 0, TWO_CARDS = 1, PAIR = 2;
+
+    private static final int TOTALS = 22;
+    private static final int UP_CARDS = 10;
+    static final int SIZE = UP_CARDS * 2 * 3 * 2 * TOTALS;
+
+    private static final int MAGIC = 0x424A5331; // "BJS1"
+    private static final String RESOURCE = "basic-strategy.bin";
+    private static final Action[] ACTIONS = Action.values();
+
+    private final byte[] table; // 2 bits per state
+
+    private BasicStrategy(byte[] table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns the shipped table, loaded on first use.
+     */
+    public static BasicStrategy getDefault() {
+        return Default.INSTANCE;
+    }
+
+    private static final class Default {
+        private static final BasicStrategy INSTANCE = load();
+
+        private static BasicStrategy load() {
+            try (var in = BasicStrategy.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing resource: " + RESOURCE);
+                }
+                return read(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Computes the table from scratch, which takes a moment; prefer
+     * {@link #getDefault()}.
+     */
+    public static BasicStrategy compute() {
+        var actions = BasicStrategyCalculator.compute();
+        var table = new byte[SIZE / 4];
+        for (int i = 0; i < SIZE; i++) {
+            table[i >> 2] |= (byte) (actions[i].ordinal() << ((i & 3) << 1));
+        }
+        return new BasicStrategy(table);
+    }
+
+    public static BasicStrategy read(InputStream in) throws IOException {
+        var data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a strategy table.");
+        }
+        var table = new byte[SIZE / 4];
+        data.readFully(table);
+        return new BasicStrategy(table);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        var data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.write(table);
+        data.flush();
+    }
+
+    static int index(int total, boolean soft, int kind, boolean dealerPlayed, int upCard) {
+        // up-cards are indexed by value, 2 through 11 for an Ace
+        return (((((Card.value(upCard) - 2) * 2 + (dealerPlayed ? 1 : 0)) * 3 + kind) * 2 + (soft ? 1 : 0)) * TOTALS) + total;
+    }
+
+    /**
+     * Returns the action for the given state, where the up-card is an ordinal
+     * (see {@link Card#of(int)}). DOUBLE_DOWN is only returned for two cards
+     * and SPLIT only for a PAIR.
+     */
+    public Action get(int total, boolean soft, int kind, boolean dealerPlayed, int upCard) {
+        int i = index(total, soft, kind, dealerPlayed, upCard);
+        return ACTIONS[(table[i >> 2] >> ((i & 3) << 1)) & 3];
+    }
+
+    @Override
+    public Action decide(Game game, Hand hand) {
+        int kind = hand.size() > 2 ? MULTI_CARD : game.canSplit() ? PAIR : TWO_CARDS;
+        return get(hand.getValue(), hand.isSoft(), kind, game.hasDealerPlayed(), game.getDealer().getUpCard());
+    }
+
+    /**
+     * Regenerates the table resource at the given path.
+     */
+    public static void main(String[] args) throws IOException {
+        try (var out = Files.newOutputStream(Path.of(args[0]))) {
+            compute().write(out);
+        }
+    }
+
+}
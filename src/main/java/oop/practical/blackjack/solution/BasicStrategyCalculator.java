@@ -0,0 +1,348 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.solution.Strategy.Action;
+
+import java.util.Arrays;
+
+/**
+ * Computes the {@link BasicStrategy} table by dynamic programming over an
+ * infinite deck, following {@link Game}'s rules rather than casino ones:
+ *
+ * <ul>
+ *     <li>The dealer draws to 17 on the player's first hit that doesn't bust,
+ *     and a hand wins as soon as the dealer busts or it reaches 21. After that
+ *     the player only knows the dealer stood on 17 to 21.</li>
+ *     <li>Doubling down is compared right away against the dealer's hand as it
+ *     is, which is usually only the first two cards.</li>
+ *     <li>Only the first hand can be split, once, and a split hand with 21 in
+ *     two cards wins outright.</li>
+ * </ul>
+ *
+ * Hands are tracked by their total with every Ace as 1 plus whether they hold
+ * an Ace. Splits are valued by playing both hands by the rest of the table.
+ */
+final class BasicStrategyCalculator {
+
+    private static final int BUST = 22; // index of a busted dealer in final totals
+    private static final double[] DRAW = new double[11]; // chance of each hard value
+
+    static {
+        Arrays.fill(DRAW, 1, 10, 1.0 / 13);
+        DRAW[10] = 4.0 / 13;
+    }
+
+    private final Action[] actions;
+    private final int upCard; // ordinal of a card with the up-card's value
+    private final int up; // hard value of the up-card
+    // chance of the dealer's two-card total and final total, given no blackjack
+    private final double[][] outcomes = new double[BUST][BUST + 1];
+    // chance of each final total once the dealer is known to have stood
+    private final double[] stood = new double[BUST + 1];
+    // value of playing on with more than two cards after the dealer played, by final total
+    private final double[][][] played = new double[32][2][];
+    // best value of each two-card hand before the dealer plays
+    private final double[][] twoCards = new double[32][2];
+
+    private BasicStrategyCalculator(Action[] actions, int up) {
+        this.actions = actions;
+        this.up = up;
+        this.upCard = Card.of(up == 1 ? Card.Rank.ACE : Card.Rank.values()[up - 2], Card.Suit.HEARTS).ordinal();
+    }
+
+    static Action[] compute() {
+        var actions = new Action[BasicStrategy.SIZE];
+        Arrays.fill(actions, Action.STAND); // for states that can't happen
+        for (int up = 1; up <= 10; up++) {
+            var calculator = new BasicStrategyCalculator(actions, up);
+            calculator.computeOutcomes();
+            calculator.computePlayed();
+            calculator.computeTwoCards();
+            calculator.computePairs();
+        }
+        return actions;
+    }
+
+    static int value(int hard, boolean ace) {
+        return ace && hard <= 11 ? hard + 10 : hard;
+    }
+
+    private static boolean soft(int hard, boolean ace) {
+        return ace && hard <= 11;
+    }
+
+    private static boolean hasAce(boolean ace, int card) {
+        return ace || card == 1;
+    }
+
+    /**
+     * Compares a total against the dealer's final total, where the dealer
+     * busting always loses.
+     */
+    private static int compare(int total, int dealer) {
+        return dealer == BUST ? 1 : Integer.compare(total, dealer);
+    }
+
+    private void set(int hard, boolean ace, int kind, boolean played, Action action) {
+        actions[BasicStrategy.index(value(hard, ace), soft(hard, ace), kind, played, upCard)] = action;
+    }
+
+    private Action get(int hard, boolean ace, int kind, boolean played) {
+        return actions[BasicStrategy.index(value(hard, ace), soft(hard, ace), kind, played, upCard)];
+    }
+
+    private void computeOutcomes() {
+        var finals = new double[32][2][];
+        double total = 0;
+        for (int hole = 1; hole <= 10; hole++) {
+            if (up + hole == 11 && (up == 1 || hole == 1)) {
+                continue; // the round ends on a dealer blackjack
+            }
+            boolean ace = up == 1 || hole == 1;
+            var distribution = dealerFinal(finals, up + hole, ace);
+            for (int f = 17; f <= BUST; f++) {
+                outcomes[value(up + hole, ace)][f] += DRAW[hole] * distribution[f];
+            }
+            total += DRAW[hole];
+        }
+        for (var row : outcomes) {
+            for (int f = 17; f <= BUST; f++) {
+                row[f] /= total;
+                stood[f] += row[f];
+            }
+        }
+        double standing = 1 - stood[BUST];
+        stood[BUST] = 0;
+        for (int f = 17; f < BUST; f++) {
+            stood[f] /= standing;
+        }
+    }
+
+    private static double[] dealerFinal(double[][][] memo, int hard, boolean ace) {
+        if (memo[hard][ace ? 1 : 0] == null) {
+            var distribution = new double[BUST + 1];
+            int value = value(hard, ace);
+            if (value > 21) {
+                distribution[BUST] = 1;
+            } else if (value >= 17) {
+                distribution[value] = 1;
+            } else {
+                for (int card = 1; card <= 10; card++) {
+                    var next = dealerFinal(memo, hard + card, hasAce(ace, card));
+                    for (int f = 17; f <= BUST; f++) {
+                        distribution[f] += DRAW[card] * next[f];
+                    }
+                }
+            }
+            memo[hard][ace ? 1 : 0] = distribution;
+        }
+        return memo[hard][ace ? 1 : 0];
+    }
+
+    /**
+     * Returns the value of hitting to a new hand by the dealer's final total.
+     */
+    private double[] hit(int hard, boolean ace) {
+        var value = new double[BUST + 1];
+        for (int card = 1; card <= 10; card++) {
+            int next = hard + card;
+            boolean nextAce = hasAce(ace, card);
+            int total = value(next, nextAce);
+            for (int f = 17; f <= BUST; f++) {
+                if (total > 21) {
+                    value[f] -= DRAW[card];
+                } else if (f == BUST) {
+                    value[f] += DRAW[card];
+                } else if (total == 21) {
+                    value[f] += DRAW[card] * (f == 21 ? 0 : 1);
+                } else {
+                    value[f] += DRAW[card] * played[next][nextAce ? 1 : 0][f];
+                }
+            }
+        }
+        return value;
+    }
+
+    private double[] stand(int hard, boolean ace) {
+        var value = new double[BUST + 1];
+        for (int f = 17; f <= BUST; f++) {
+            value[f] = compare(value(hard, ace), f);
+        }
+        return value;
+    }
+
+    private double expected(double[] value) {
+        double sum = 0;
+        for (int f = 17; f <= BUST; f++) {
+            sum += stood[f] * value[f];
+        }
+        return sum;
+    }
+
+    private void computePlayed() {
+        for (int hard = 21; hard >= 2; hard--) {
+            for (boolean ace : new boolean[] {false, true}) {
+                if (value(hard, ace) > 20) {
+                    continue; // a hand that reaches 21 is decided at once
+                }
+                var stand = stand(hard, ace);
+                var hit = hit(hard, ace);
+                boolean hits = expected(hit) > expected(stand);
+                played[hard][ace ? 1 : 0] = hits ? hit : stand;
+                set(hard, ace, BasicStrategy.MULTI_CARD, true, hits ? Action.HIT : Action.STAND);
+
+                // a split hand may still have two cards after the dealer played
+                var doubled = new double[BUST + 1];
+                for (int card = 1; card <= 10; card++) {
+                    int total = value(hard + card, hasAce(ace, card));
+                    for (int f = 17; f <= BUST; f++) {
+                        doubled[f] += 2 * DRAW[card] * (total > 21 ? -1 : compare(total, f));
+                    }
+                }
+                var best = hits ? Action.HIT : Action.STAND;
+                if (expected(doubled) > Math.max(expected(hit), expected(stand))) {
+                    best = Action.DOUBLE_DOWN;
+                }
+                set(hard, ace, BasicStrategy.TWO_CARDS, true, best);
+                set(hard, ace, BasicStrategy.PAIR, true, best);
+            }
+        }
+    }
+
+    private void computeTwoCards() {
+        for (int hard = 2; hard <= 20; hard++) {
+            for (boolean ace : new boolean[] {false, true}) {
+                if (value(hard, ace) > 20) {
+                    continue;
+                }
+                var hit = hit(hard, ace);
+                var stand = stand(hard, ace);
+                double hitValue = 0;
+                double standValue = 0;
+                double doubleValue = 0;
+                for (int d = 0; d < BUST; d++) {
+                    for (int f = 17; f <= BUST; f++) {
+                        hitValue += outcomes[d][f] * hit[f];
+                        standValue += outcomes[d][f] * stand[f];
+                    }
+                }
+                for (int card = 1; card <= 10; card++) {
+                    int total = value(hard + card, hasAce(ace, card));
+                    for (int d = 0; d < BUST; d++) {
+                        for (int f = 17; f <= BUST; f++) {
+                            // doubling is decided against the dealer's first two cards
+                            doubleValue += 2 * DRAW[card] * outcomes[d][f] * (total > 21 ? -1 : Integer.compare(total, d));
+                        }
+                    }
+                }
+                var best = hitValue > standValue ? Action.HIT : Action.STAND;
+                double bestValue = Math.max(hitValue, standValue);
+                if (doubleValue > bestValue) {
+                    best = Action.DOUBLE_DOWN;
+                    bestValue = doubleValue;
+                }
+                set(hard, ace, BasicStrategy.TWO_CARDS, false, best);
+                set(hard, ace, BasicStrategy.PAIR, false, best);
+                twoCards[hard][ace ? 1 : 0] = bestValue;
+            }
+        }
+    }
+
+    private void computePairs() {
+        var split = new double[11];
+        var memo = new double[32][2][2][2][];
+        for (int d = 0; d < BUST; d++) {
+            for (int f = 17; f <= BUST; f++) {
+                if (outcomes[d][f] == 0) {
+                    continue;
+                }
+                for (var row : memo) {
+                    for (var cell : row) {
+                        for (var kinds : cell) {
+                            Arrays.fill(kinds, null);
+                        }
+                    }
+                }
+                for (int card = 1; card <= 10; card++) {
+                    split[card] += outcomes[d][f] * split(memo, card, d, f);
+                }
+            }
+        }
+        for (int card = 1; card <= 10; card++) {
+            boolean ace = card == 1;
+            if (split[card] > twoCards[2 * card][ace ? 1 : 0]) {
+                set(2 * card, ace, BasicStrategy.PAIR, false, Action.SPLIT);
+            }
+        }
+    }
+
+    /**
+     * Returns the value of splitting a pair of the given card, for a dealer
+     * with the given two-card and final totals.
+     */
+    private double split(double[][][][][] memo, int card, int dealer, int dealerFinal) {
+        double first = 0;
+        double played = 0;
+        double second = 0;
+        for (int next = 1; next <= 10; next++) {
+            var hand = play(memo, card + next, hasAce(card == 1, next), false, false, dealer, dealerFinal);
+            first += DRAW[next] * hand[0];
+            played += DRAW[next] * hand[1];
+            second += DRAW[next] * play(memo, card + next, hasAce(card == 1, next), false, true, dealer, dealerFinal)[0];
+        }
+        // the second hand plays like the first unless the first had the dealer play
+        return first + played * second + (1 - played) * first;
+    }
+
+    /**
+     * Plays a hand by the table against a known dealer, returning its value
+     * and the chance the dealer has played by the time it's decided.
+     */
+    private double[] play(double[][][][][] memo, int hard, boolean ace, boolean multi, boolean dealerPlayed, int dealer, int dealerFinal) {
+        var cached = memo[hard][ace ? 1 : 0][multi ? 1 : 0][dealerPlayed ? 1 : 0];
+        if (cached != null) {
+            return cached;
+        }
+        int total = value(hard, ace);
+        double[] result;
+        if (!multi && total == 21) {
+            result = new double[] {1, dealerPlayed ? 1 : 0};
+        } else {
+            var action = get(hard, ace, multi ? BasicStrategy.MULTI_CARD : BasicStrategy.TWO_CARDS, dealerPlayed);
+            switch (action) {
+                case STAND -> result = new double[] {compare(total, dealerFinal), dealerPlayed ? 1 : 0};
+                case DOUBLE_DOWN -> {
+                    double value = 0;
+                    for (int card = 1; card <= 10; card++) {
+                        int next = value(hard + card, hasAce(ace, card));
+                        int outcome = next > 21 ? -1 : dealerPlayed ? compare(next, dealerFinal) : Integer.compare(next, dealer);
+                        value += 2 * DRAW[card] * outcome;
+                    }
+                    result = new double[] {value, dealerPlayed ? 1 : 0};
+                }
+                case HIT -> {
+                    result = new double[2];
+                    for (int card = 1; card <= 10; card++) {
+                        int nextHard = hard + card;
+                        boolean nextAce = hasAce(ace, card);
+                        int next = value(nextHard, nextAce);
+                        if (next > 21) {
+                            result[0] -= DRAW[card];
+                            result[1] += DRAW[card] * (dealerPlayed ? 1 : 0);
+                        } else if (dealerFinal == BUST || next == 21) {
+                            result[0] += DRAW[card] * (dealerFinal == 21 ? 0 : 1);
+                            result[1] += DRAW[card];
+                        } else {
+                            var hand = play(memo, nextHard, nextAce, true, true, dealer, dealerFinal);
+                            result[0] += DRAW[card] * hand[0];
+                            result[1] += DRAW[card];
+                        }
+                    }
+                }
+                default -> throw new AssertionError(action);
+            }
+        }
+        memo[hard][ace ? 1 : 0][multi ? 1 : 0][dealerPlayed ? 1 : 0] = result;
+        return result;
+    }
+
+}
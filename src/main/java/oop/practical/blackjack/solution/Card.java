@@ -8,12 +8,121 @@ public class Card {
     public enum Rank {
         TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT, NINE, TEN, JACK, QUEEN, KING, ACE
     }
+
+    // Cards are encoded as a single ordinal, rank * 4 + suit, so decks and
+    // hands can be stored as byte arrays. Card objects are only a view over
+    // the ordinal and are shared through the table below.
+    public static final int COUNT = 52;
+    private static final Card[] CARDS = new Card[COUNT];
+    private static final byte[] VALUES = new byte[COUNT];
+    private static final String[] GLYPHS = new String[COUNT]; // rendered text, built once
+
+    static {
+        for (Rank rank : Rank.values()) {
+            for (Suit suit : Suit.values()) {
+                Card card = new Card(rank, suit);
+                CARDS[card.ordinal] = card;
+                VALUES[card.ordinal] = (byte) card.getValue();
+                GLYPHS[card.ordinal] = rankText(rank) + suit.name().charAt(0);
+            }
+        }
+    }
+
     private final Suit suit;
     private final Rank rank;
+    private final byte ordinal;
 
-    public Card(Rank rank, Suit suit) {
+    private Card(Rank rank, Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.ordinal = (byte) (rank.ordinal() * 4 + suit.ordinal());
+    }
+
+    public static Card of(Rank rank, Suit suit) {
+        return CARDS[rank.ordinal() * 4 + suit.ordinal()];
+    }
+
+    public static Card of(int ordinal) {
+        return CARDS[ordinal];
+    }
+
+    /**
+     * Parses a card such as {@code 10H} or {@code AS} into its canonical
+     * instance, without allocating on success.
+     */
+    public static Card parse(CharSequence text) {
+        int length = text.length();
+        Rank rank = null;
+        if (length == 2) {
+            rank = parseRank(text.charAt(0));
+        } else if (length == 3 && text.charAt(0) == '1' && text.charAt(1) == '0') {
+            rank = Rank.TEN;
+        }
+        if (rank == null) {
+            throw new IllegalArgumentException("invald rank: " + text.subSequence(0, Math.max(length - 1, 0)));
+        }
+        Suit suit = parseSuit(text.charAt(length - 1));
+        if (suit == null) {
+            throw new IllegalArgumentException("not valid suite: " + text.charAt(length - 1));
+        }
+        return of(rank, suit);
+    }
+
+    private static Rank parseRank(char c) {
+        switch (c) {
+            case '2': return Rank.TWO;
+            case '3': return Rank.THREE;
+            case '4': return Rank.FOUR;
+            case '5': return Rank.FIVE;
+            case '6': return Rank.SIX;
+            case '7': return Rank.SEVEN;
+            case '8': return Rank.EIGHT;
+            case '9': return Rank.NINE;
+            case 'J': return Rank.JACK;
+            case 'Q': return Rank.QUEEN;
+            case 'K': return Rank.KING;
+            case 'A': return Rank.ACE;
+            default: return null;
+        }
+    }
+
+    private static Suit parseSuit(char c) {
+        switch (c) {
+            case 'H': return Suit.HEARTS;
+            case 'D': return Suit.DIAMONDS;
+            case 'C': return Suit.CLUBS;
+            case 'S': return Suit.SPADES;
+            default: return null;
+        }
+    }
+
+    /**
+     * Returns the card's text, such as {@code 10H}, without allocating.
+     */
+    public static String glyph(int ordinal) {
+        return GLYPHS[ordinal];
+    }
+
+    public static int value(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Returns the value with an Ace counted as 1.
+     */
+    public static int hardValue(int ordinal) {
+        return isAce(ordinal) ? 1 : VALUES[ordinal];
+    }
+
+    /**
+     * Returns the ordinal of the card's rank.
+     */
+    public static int rank(int ordinal) {
+        return ordinal / 4;
+    }
+
+    public static boolean isAce(int ordinal) {
+        return ordinal >= Rank.ACE.ordinal() * 4;
     }
 
     public int getValue() {
@@ -46,26 +155,32 @@ public class Card {
     public Rank getRank() {
         return rank;
     }
-    @Override
-    public String toString() {
-        String rankString;
+
+    public int ordinal() {
+        return ordinal;
+    }
+    private static String rankText(Rank rank) {
         switch (rank) {
-            case ACE: rankString = "A"; break;
-            case TWO: rankString = "2"; break;
-            case THREE: rankString = "3"; break;
-            case FOUR: rankString = "4"; break;
-            case FIVE: rankString = "5"; break;
-            case SIX: rankString = "6"; break;
-            case SEVEN: rankString = "7"; break;
-            case EIGHT: rankString = "8"; break;
-            case NINE: rankString = "9"; break;
-            case TEN: rankString = "10"; break;
-            case JACK: rankString = "J"; break;
-            case QUEEN: rankString = "Q"; break;
-            case KING: rankString = "K"; break;
+            case ACE: return "A";
+            case TWO: return "2";
+            case THREE: return "3";
+            case FOUR: return "4";
+            case FIVE: return "5";
+            case SIX: return "6";
+            case SEVEN: return "7";
+            case EIGHT: return "8";
+            case NINE: return "9";
+            case TEN: return "10";
+            case JACK: return "J";
+            case QUEEN: return "Q";
+            case KING: return "K";
             default: throw new IllegalArgumentException("Invalid card rank");
         }
-        return rankString + suit.toString().substring(0, 1);
+    }
+
+    @Override
+    public String toString() {
+        return GLYPHS[ordinal];
     }
 
 
@@ -0,0 +1,47 @@
+package oop.practical.blackjack.solution;
+
+/**
+ * A balanced card counting system, giving each rank a tag that adds up to
+ * zero over a full deck. Counts are read from the deck's remaining ranks
+ * (see {@link Deck#getRemaining}), so they take O(1) whatever the size of
+ * the deck and are always in step with what has been dealt.
+ */
+public enum CountingSystem {
+    // tags for 2 through 10, J, Q, K and A
+    HI_LO(1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1),
+    HI_OPT_I(0, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, 0),
+    HI_OPT_II(1, 1, 2, 2, 1, 1, 0, 0, -2, -2, -2, -2, 0),
+    OMEGA_II(1, 1, 2, 2, 2, 1, 0, -1, -2, -2, -2, -2, 0),
+    ZEN(1, 1, 2, 2, 2, 1, 0, 0, -2, -2, -2, -2, -1);
+
+    private final int[] tags;
+
+    CountingSystem(int... tags) {
+        assert tags.length == Card.Rank.values().length;
+        this.tags = tags;
+    }
+
+    public int getTag(Card.Rank rank) {
+        return tags[rank.ordinal()];
+    }
+
+    /**
+     * Returns the running count of the cards dealt so far, which for a
+     * balanced system is minus the count of the cards still in the deck.
+     */
+    public int getRunningCount(Deck deck) {
+        int count = 0;
+        for (int rank = 0; rank < tags.length; rank++) {
+            count -= tags[rank] * deck.getRemaining(rank);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the running count per deck left, or 0 for an empty deck.
+     */
+    public double getTrueCount(Deck deck) {
+        return deck.isEmpty() ? 0 : getRunningCount(deck) * (double) Card.COUNT / deck.getSize();
+    }
+
+}
@@ -1,89 +1,116 @@
 package oop.practical.blackjack.solution;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Dealer {
-    private List<Card> hand; // The dealer's hand
-    private String status; // The status of the dealer's hand (e.g., waiting, won, lost)
-    private String statusSplit; // The status of the dealer's hand in relation to the player's split hand
+    private final Hand hand; // The dealer's hand
+    private Hand.Status status; // The status of the dealer's hand in relation to the player's main hand (e.g., waiting, won, lost)
+    private Hand.Status statusSplit; // The status of the dealer's hand in relation to the player's split hand
 
     public Dealer() {
-        hand = new ArrayList<>();
-        status = "waiting"; // default status
-        statusSplit = ""; // default status for the split hand
+        hand = new Hand();
+        status = Hand.Status.WAITING; // default status
+        statusSplit = null; // no status for the split hand until the player splits
+    }
+
+    /**
+     * Creates a copy of the dealer and their hand.
+     */
+    Dealer(Dealer dealer) {
+        hand = new Hand(dealer.hand);
+        status = dealer.status;
+        statusSplit = dealer.statusSplit;
+    }
+
+    /**
+     * Clears the hand so the dealer can be dealt a new round.
+     */
+    public void reset() {
+        hand.clear();
+        status = Hand.Status.WAITING;
+        statusSplit = null;
+    }
+
+    Hand getHand() {
+        return hand;
     }
 
     public int calculateHandValue() {
-        return calculateHandValue(this.hand);
+        return hand.getValue();
+    }
+
+    public boolean isSoft() {
+        return hand.isSoft();
+    }
+
+    public boolean isBusted() {
+        return hand.isBusted();
+    }
+
+    /**
+     * Returns the ordinal of the dealer's face-up card.
+     */
+    public int getUpCard() {
+        return hand.getCard(1);
     }
 
     public boolean hasBlackjack() {
-        return this.hand.size() == 2 && calculateHandValue() == 21;
+        return hand.isBlackjack();
     }
 
-    public void setStatus(String newStatus) {
+    public void setStatus(Hand.Status newStatus) {
+        // the dealer's statuses mirror the player's hands, so they aren't checked against the state machine
         this.status = newStatus;
     }
-    public void setStatusSplit(String newStatus){
+    public void setStatusSplit(Hand.Status newStatus){
         this.statusSplit = newStatus;
     }
 
     public void addCard(Card card) {
-        hand.add(card);
+        hand.addCard(card);
+    }
+
+    public void addCard(int ordinal) {
+        hand.addCard(ordinal);
+    }
+    public Hand.Status getStatus() {
+        return status;
     }
-    public String getStatusSplit() {
+    public Hand.Status getStatusSplit() {
         return statusSplit;
     }
 
 
-    private int calculateHandValue(List<Card> handToEvaluate) {
-        int value = 0;
-        int acesCount = 0;
-
-        for (Card card : handToEvaluate) {
-            int cardValue = card.getValue();
-            if (card.getRank() == Card.Rank.ACE) {
-                acesCount++;
-                cardValue = 11; // Initially treat Ace as 11
-            }
-            value += cardValue;
-        }
-        while (value > 21 && acesCount > 0) {
-            value -= 10;
-            acesCount--;
-        }
-
-        return value;
+    public String inspect(boolean playerHasSplit) {
+        StringBuilder sb = new StringBuilder();
+        inspect(playerHasSplit, sb);
+        return sb.toString();
     }
 
-    public String inspect(boolean playerHasSplit) {
-        StringBuilder sb = new StringBuilder("Dealer (");
+    /**
+     * Appends the same text as {@link #inspect(boolean)} to the given builder.
+     */
+    public void inspect(boolean playerHasSplit, StringBuilder sb) {
+        sb.append("Dealer (");
 
         // Check if the player's turn is still ongoing
-        if (status.equals("waiting") || (playerHasSplit && statusSplit.equals("waiting"))) {
+        if (status == Hand.Status.WAITING || (playerHasSplit && statusSplit == Hand.Status.WAITING)) {
             sb.append("? + ");
             if (hand.size() > 1) {
-                sb.append(hand.get(1).getValue()); // Value of the second card (face-up card)
+                sb.append(Card.value(hand.getCard(1))); // Value of the second card (face-up card)
             } else {
                 sb.append("?"); // The second card is not available yet
             }
             sb.append("): ?"); // Hole card
             if (hand.size() > 1) {
-                sb.append(", ").append(hand.get(1)); // Append the face-up card
+                sb.append(", ").append(Card.glyph(hand.getCard(1))); // Append the face-up card
             }
         } else {
             // Player's turn is completed, show the dealer's total value and all cards
             sb.append(calculateHandValue()).append("): ");
-            for (Card card : hand) {
-                sb.append(card).append(", ");
-            }
-            // Remove the trailing comma and space
-            sb.delete(sb.length() - 2, sb.length());
+            hand.appendCards(sb);
         }
 
         // Append the dealer's status for the main hand
-        sb.append(" (").append(this.status);
+        sb.append(" (").append(status);
 
         // If the player has split, append the dealer's status for the split hand
         if (playerHasSplit) {
@@ -92,8 +119,6 @@ public class Dealer {
 
         // Close the parentheses for the status section
         sb.append(")");
-
-        return sb.toString();
     }
 
 }
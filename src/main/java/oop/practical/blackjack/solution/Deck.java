@@ -1,65 +1,272 @@
 package oop.practical.blackjack.solution;
-import static oop.practical.blackjack.solution.Card.Suit;
-import static oop.practical.blackjack.solution.Card.Rank;
-import java.util.stream.Collectors;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-import java.util.stream.Collectors;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class Deck {
-    public Queue<Card> cards;
+    // Cards are stored as ordinals (see Card.of) in a ring buffer: the queue is
+    // the size cards starting at head, wrapping around the end of the array.
+    private final RandomGenerator random;
+    private final int decks;
+    private byte[] cards;
+    private int head;
+    private int size;
+    // how many of each rank are left in the queue, kept up to date as cards come and go
+    private final int[] remaining = new int[Card.Rank.values().length];
+    private boolean complete = true; // still made of the decks it was created with, dealt or not
+    private boolean shared; // cards is shared with a copy, so it's copied before being written
 
     public Deck() {
-        cards = new LinkedList<>();
-        for (Suit suit : Suit.values()) {
-            for (Rank rank : Rank.values()) {
-                cards.add(new Card(rank, suit));
-            }
+        this(new SplittableRandom());
+    }
+
+    public Deck(RandomGenerator random) {
+        this(1, random);
+    }
+
+    Deck(int decks, RandomGenerator random) {
+        this.random = random;
+        this.decks = decks;
+        cards = new byte[decks * Card.COUNT];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (byte) (i % Card.COUNT);
         }
+        size = cards.length;
+        Arrays.fill(remaining, decks * 4);
         shuffle();
     }
 
-    public void shuffle() {
-        // Convert the queue to a list to shuffle it
-        List<Card> cardList = new ArrayList<>(cards);
-        Collections.shuffle(cardList);
-        cards.clear();
-        cards.addAll(cardList);
+    /**
+     * Creates a copy of the deck that deals on its own, sharing the card
+     * array until either of them writes to it. A copy of a {@link Shoe} is a
+     * plain deck, so it never reshuffles.
+     */
+    Deck(Deck deck) {
+        random = deck.random;
+        decks = deck.decks;
+        cards = deck.cards;
+        head = deck.head;
+        size = deck.size;
+        System.arraycopy(deck.remaining, 0, remaining, 0, remaining.length);
+        complete = deck.complete;
+        shared = true;
+        deck.shared = true;
+    }
+
+    public final void shuffle() {
+        own();
+        // Fisher-Yates, in place over the remaining cards
+        for (int i = size - 1; i > 0; i--) {
+            int a = index(i);
+            int b = index(random.nextInt(i + 1));
+            byte card = cards[a];
+            cards[a] = cards[b];
+            cards[b] = card;
+        }
     }
 
     public Card dealCard() {
+        int card = deal();
+        return card == -1 ? null : Card.of(card);
+    }
+
+    /**
+     * Deals the next card as an ordinal, or -1 if the deck is empty.
+     */
+    public int deal() {
+        if (size == 0) {
+            return -1;
+        }
+        byte card = cards[head];
+        head = index(1);
+        size--;
+        remaining[Card.rank(card)]--;
+        return card;
+    }
+
+    /**
+     * Called before each round is dealt; a plain deck has nothing to do.
+     */
+    public void beginRound() {}
 
-        return cards.poll();
+    /**
+     * Returns whether the deck is still made of the decks it was created
+     * with, dealt or not. Clearing it or adding cards makes it a custom deck
+     * for good, whose dealt cards can't be brought back.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns how many 52-card decks the deck was created with.
+     */
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * Puts every dealt card back in the queue in O(1). Dealt cards are never
+     * overwritten until something is added, so this is only valid if the deck
+     * is {@link #isComplete() complete}, and throws IllegalStateException
+     * otherwise.
+     */
+    void collect() {
+        if (!complete) {
+            throw new IllegalStateException("The dealt cards of a custom deck can't be collected.");
+        }
+        size = cards.length;
+        Arrays.fill(remaining, cards.length / remaining.length);
+    }
+
+    /**
+     * Returns every dealt card to the deck and shuffles it. Throws
+     * IllegalStateException if the deck has been cleared or added to, whose
+     * dealt cards are no longer known.
+     */
+    public void reshuffle() {
+        if (Metrics.ENABLED) {
+            Metrics.count(Metrics.Counter.RESHUFFLES);
+        }
+        collect();
+        shuffle();
     }
 
     public void clear() {
-        cards.clear();
+        complete = false;
+        head = 0;
+        size = 0;
+        Arrays.fill(remaining, 0);
     }
 
     public void addCard(Card card) {
-        cards.offer(card);
+        addCard(card.ordinal());
+    }
+
+    public void addCard(int ordinal) {
+        complete = false;
+        own();
+        if (size == cards.length) {
+            // only custom decks with more than 52 cards ever get here
+            byte[] grown = new byte[cards.length * 2];
+            for (int i = 0; i < size; i++) {
+                grown[i] = cards[index(i)];
+            }
+            cards = grown;
+            head = 0;
+        }
+        cards[index(size)] = (byte) ordinal;
+        size++;
+        remaining[Card.rank(ordinal)]++;
     }
+    /**
+     * Writes the queue's ordinals in dealing order.
+     */
+    void writeQueue(ByteBuffer out) {
+        int first = Math.min(size, cards.length - head); // up to the end of the array, then wrapped around
+        out.put(cards, head, first);
+        out.put(cards, 0, size - first);
+    }
+
+    /**
+     * Replaces the queue with the given cards and keeps every other card of
+     * the deck's full set behind them as dealt, so {@link #collect()} still
+     * brings back all of them. Only valid for a deck that hasn't been cleared
+     * or added to, and throws if the cards aren't part of its full set.
+     */
+    void restoreQueue(byte[] queue, int count) {
+        own();
+        int copies = cards.length / Card.COUNT;
+        int[] left = new int[Card.COUNT];
+        Arrays.fill(left, copies);
+        for (int i = 0; i < count; i++) {
+            if (--left[queue[i]] < 0) {
+                throw new IllegalArgumentException("More copies of " + Card.of(queue[i]) + " than the deck holds.");
+            }
+        }
+        System.arraycopy(queue, 0, cards, 0, count);
+        int next = count;
+        for (int card = 0; card < Card.COUNT; card++) {
+            for (int i = 0; i < left[card]; i++) {
+                cards[next++] = (byte) card;
+            }
+        }
+        head = 0;
+        size = count;
+        Arrays.fill(remaining, 0);
+        for (int i = 0; i < count; i++) {
+            remaining[Card.rank(queue[i])]++;
+        }
+    }
+
     public boolean isEmpty(){
-        return cards.isEmpty();
+        return size == 0;
     }
 
     @Override
     public String toString() {
-        if (cards.isEmpty()) {
-            return "Deck: (empty)";
-        } else {
-            return "Deck: " + cards.stream()
-                    .map(Card::toString)
-                    .collect(Collectors.joining(", "));
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the same text as {@link #toString()}, without allocating once
+     * the builder has grown large enough.
+     */
+    public void appendTo(StringBuilder sb) {
+        if (isEmpty()) {
+            sb.append("Deck: (empty)");
+            return;
+        }
+        sb.append("Deck: ");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(Card.glyph(cards[index(i)]));
+        }
+    }
+
+    /**
+     * Returns how many cards of the given rank are left, in O(1).
+     */
+    public int getRemaining(Card.Rank rank) {
+        return remaining[rank.ordinal()];
+    }
+
+    int getRemaining(int rank) {
+        return remaining[rank];
+    }
+
+    /**
+     * Adds the number of remaining cards of each hard value (1 for an Ace
+     * through 10) to the given array, indexed by value.
+     */
+    void countRemaining(int[] counts) {
+        for (int rank = 0; rank < remaining.length; rank++) {
+            counts[Card.hardValue(rank * 4)] += remaining[rank]; // the first card of the rank
         }
     }
 
     public int getSize(){
-        return cards.size();
+        return size;
+    }
+
+    /**
+     * Copies the cards before they are written if a copy shares them.
+     */
+    private void own() {
+        if (shared) {
+            cards = cards.clone();
+            shared = false;
+        }
     }
-}
 
+    private int index(int offset) {
+        int index = head + offset;
+        return index >= cards.length ? index - cards.length : index;
+    }
+}
@@ -0,0 +1,433 @@
+package oop.practical.blackjack.solution;
+
+import java.util.Locale;
+
+/**
+ * The expected value of each option for the hand in play, computed exactly
+ * from the cards the player hasn't seen (the rest of the deck plus the
+ * dealer's hidden cards) instead of an infinite deck, under the same rules as
+ * {@link BasicStrategyCalculator}. Values are in units of the hand's bet.
+ *
+ * <p>The dealer's final totals are computed by recursion over the unseen
+ * cards. Results are memoized in a direct-mapped cache of bounded size,
+ * keyed by the dealer's hand and how many cards of each value have been drawn
+ * so far, packed into a long.
+ *
+ * <p>Two simplifications keep this tractable. The cards the dealer draws
+ * aren't removed for the player's later hits, since the player never sees
+ * them. A split is valued as two independent hands.
+ */
+public final class ExpectedValue {
+
+    /**
+     * The expected values, NaN for an option that isn't allowed.
+     */
+    public record Result(double stand, double hit, double doubleDown, double split) {
+
+        @Override
+        public String toString() {
+            var sb = new StringBuilder("EV: stand ").append(format(stand));
+            append(sb, "hit", hit);
+            append(sb, "double-down", doubleDown);
+            append(sb, "split", split);
+            return sb.toString();
+        }
+
+        private static void append(StringBuilder sb, String name, double value) {
+            if (!Double.isNaN(value)) {
+                sb.append(", ").append(name).append(' ').append(format(value));
+            }
+        }
+
+        private static String format(double value) {
+            return String.format(Locale.ROOT, "%+.4f", value);
+        }
+
+    }
+
+    private static final int BUST = 22; // index of a busted dealer in final totals
+    private static final int CACHE_BITS = 14;
+    // No more than this total value is ever drawn while evaluating a hand,
+    // which bounds the count of each value drawn and so the bits it needs in
+    // a key. The player only draws on a hard total of 20 or less, from at
+    // least 1 (a split Ace), so their cards add at most 19 plus a last card
+    // of 10. The dealer draws their hole card and more on a hard 16 or less
+    // over an up-card of at least 1: at most 15 plus a last 10. That is 29 +
+    // 25 (a split is valued from one of its hands, so only one player hand
+    // ever draws).
+    private static final int MAX_DRAWN = 54;
+    private static final int[] SHIFT = new int[12];
+
+    static {
+        SHIFT[1] = 6; // after the dealer's hard total and Ace flag
+        for (int value = 1; value <= 10; value++) {
+            SHIFT[value + 1] = SHIFT[value] + 32 - Integer.numberOfLeadingZeros(MAX_DRAWN / value);
+        }
+        assert SHIFT[11] <= 64;
+    }
+
+    private final int[] unseen = new int[11]; // by hard value, Ace as 1
+    private final int[] counts = new int[11]; // unseen less the cards drawn so far
+    private int remaining;
+    private final int up;
+    private final long[] keys = new long[1 << CACHE_BITS];
+    private final double[][] values = new double[1 << CACHE_BITS][];
+
+    private ExpectedValue(Deck deck, Hand dealer) {
+        deck.countRemaining(unseen);
+        for (int i = 0; i < dealer.size(); i++) {
+            if (i != 1) { // the up-card
+                unseen[Card.hardValue(dealer.getCard(i))]++;
+            }
+        }
+        System.arraycopy(unseen, 0, counts, 0, unseen.length);
+        for (int count : counts) {
+            remaining += count;
+        }
+        up = Card.hardValue(dealer.getCard(1));
+    }
+
+    /**
+     * Returns the expected values for the game's current hand, or null if no
+     * hand is in play.
+     */
+    public static Result of(Game game) {
+        Hand hand = game.getCurrentHand();
+        if (hand == null) {
+            return null;
+        }
+        var calculator = new ExpectedValue(game.getDeck(), game.getDealer().getHand());
+        return calculator.evaluate(hand, game.hasDealerPlayed(), game.canSplit(), !game.getDeck().isEmpty());
+    }
+
+    private Result evaluate(Hand hand, boolean dealerPlayed, boolean canSplit, boolean canDraw) {
+        boolean ace = hand.isSoft(); // an Ace only matters while it can count as 11
+        int hard = hand.getValue() - (ace ? 10 : 0);
+        boolean twoCards = hand.size() == 2;
+        if (dealerPlayed) {
+            var stood = stood(dealerStart());
+            return new Result(
+                expected(stood, stand(hard, ace)),
+                canDraw ? expected(stood, hitPlayed(hard, ace, stood)) : Double.NaN,
+                canDraw && twoCards ? expected(stood, doublePlayed(hard, ace)) : Double.NaN,
+                Double.NaN
+            );
+        }
+        return new Result(
+            standBefore(hard, ace),
+            canDraw ? hitBefore(hard, ace) : Double.NaN,
+            canDraw && twoCards ? doubleBefore(hard, ace) : Double.NaN,
+            canDraw && canSplit ? split(hard / 2) : Double.NaN
+        );
+    }
+
+    static int value(int hard, boolean ace) {
+        return ace && hard <= 11 ? hard + 10 : hard;
+    }
+
+    private static int compare(int total, int dealer) {
+        return dealer == BUST ? 1 : Integer.compare(total, dealer);
+    }
+
+    private double chance(int card) {
+        return (double) counts[card] / remaining;
+    }
+
+    private void draw(int card) {
+        counts[card]--;
+        remaining--;
+    }
+
+    private void undraw(int card) {
+        counts[card]++;
+        remaining++;
+    }
+
+    private long key(int hard, boolean ace) {
+        long key = hard | (ace ? 1 << 5 : 0);
+        for (int value = 1; value <= 10; value++) {
+            key |= (long) (unseen[value] - counts[value]) << SHIFT[value];
+        }
+        return key;
+    }
+
+    /**
+     * Returns the chance of each final total for a dealer drawing to 17 from
+     * the given hand.
+     */
+    private double[] dealerFinal(int hard, boolean ace) {
+        int total = value(hard, ace);
+        var distribution = new double[BUST + 1];
+        if (total > 21) {
+            distribution[BUST] = 1;
+            return distribution;
+        } else if (total >= 17 || remaining == 0) {
+            distribution[total] = 1;
+            return distribution;
+        }
+
+        long key = key(hard, ace);
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - CACHE_BITS));
+        if (keys[slot] == key && values[slot] != null) {
+            return values[slot];
+        }
+        for (int card = 1; card <= 10; card++) {
+            if (counts[card] == 0) {
+                continue;
+            }
+            double chance = chance(card);
+            draw(card);
+            var next = dealerFinal(hard + card, ace || card == 1);
+            undraw(card);
+            for (int f = 0; f <= BUST; f++) {
+                distribution[f] += chance * next[f];
+            }
+        }
+        keys[slot] = key;
+        values[slot] = distribution;
+        return distribution;
+    }
+
+    /**
+     * Returns the chance of each two-card total and final total for the
+     * dealer, given they don't have blackjack.
+     */
+    private double[][] dealerStart() {
+        var outcomes = new double[BUST][];
+        int holes = 0;
+        for (int hole = 1; hole <= 10; hole++) {
+            if (up + hole != 11 || (up != 1 && hole != 1)) {
+                holes += counts[hole];
+            }
+        }
+        for (int hole = 1; hole <= 10; hole++) {
+            if (counts[hole] == 0 || (up + hole == 11 && (up == 1 || hole == 1))) {
+                continue;
+            }
+            double chance = (double) counts[hole] / holes;
+            boolean ace = up == 1 || hole == 1;
+            draw(hole);
+            var distribution = dealerFinal(up + hole, ace);
+            undraw(hole);
+            int total = value(up + hole, ace);
+            if (outcomes[total] == null) {
+                outcomes[total] = new double[BUST + 1];
+            }
+            for (int f = 0; f <= BUST; f++) {
+                outcomes[total][f] += chance * distribution[f];
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Returns the chance of each final total once the dealer is known to
+     * have stood.
+     */
+    private static double[] stood(double[][] outcomes) {
+        var stood = new double[BUST + 1];
+        double sum = 0;
+        for (var row : outcomes) {
+            if (row != null) {
+                for (int f = 0; f < BUST; f++) {
+                    stood[f] += row[f];
+                    sum += row[f];
+                }
+            }
+        }
+        for (int f = 0; f < BUST; f++) {
+            stood[f] /= sum;
+        }
+        return stood;
+    }
+
+    private static double expected(double[] chances, double[] value) {
+        double sum = 0;
+        for (int f = 0; f <= BUST; f++) {
+            sum += chances[f] * value[f];
+        }
+        return sum;
+    }
+
+    private static double[] stand(int hard, boolean ace) {
+        var value = new double[BUST + 1];
+        for (int f = 0; f <= BUST; f++) {
+            value[f] = compare(value(hard, ace), f);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of hitting after the dealer played, by their final
+     * total, playing on by whichever of hit or stand is better.
+     */
+    private double[] hitPlayed(int hard, boolean ace, double[] stood) {
+        var value = new double[BUST + 1];
+        for (int card = 1; card <= 10; card++) {
+            if (counts[card] == 0) {
+                continue;
+            }
+            double chance = chance(card);
+            int total = value(hard + card, ace || card == 1);
+            double[] next = null;
+            if (total < 21) {
+                draw(card);
+                next = played(hard + card, ace || card == 1, stood);
+                undraw(card);
+            }
+            for (int f = 0; f <= BUST; f++) {
+                if (total > 21) {
+                    value[f] -= chance;
+                } else if (f == BUST) {
+                    value[f] += chance;
+                } else if (total == 21) {
+                    value[f] += chance * (f == 21 ? 0 : 1);
+                } else {
+                    value[f] += chance * next[f];
+                }
+            }
+        }
+        return value;
+    }
+
+    private double[] played(int hard, boolean ace, double[] stood) {
+        var stand = stand(hard, ace);
+        if (remaining == 0) {
+            return stand;
+        }
+        var hit = hitPlayed(hard, ace, stood);
+        return expected(stood, hit) > expected(stood, stand) ? hit : stand;
+    }
+
+    private double[] doublePlayed(int hard, boolean ace) {
+        var value = new double[BUST + 1];
+        for (int card = 1; card <= 10; card++) {
+            if (counts[card] == 0) {
+                continue;
+            }
+            double chance = chance(card);
+            int total = value(hard + card, ace || card == 1);
+            for (int f = 0; f <= BUST; f++) {
+                value[f] += 2 * chance * (total > 21 ? -1 : compare(total, f));
+            }
+        }
+        return value;
+    }
+
+    private double standBefore(int hard, boolean ace) {
+        var stand = stand(hard, ace);
+        double value = 0;
+        for (var row : dealerStart()) {
+            if (row != null) {
+                value += expected(row, stand);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of hitting before the dealer played, which has them
+     * play unless the hand busts.
+     */
+    private double hitBefore(int hard, boolean ace) {
+        double value = 0;
+        for (int card = 1; card <= 10; card++) {
+            if (counts[card] == 0) {
+                continue;
+            }
+            double chance = chance(card);
+            int nextHard = hard + card;
+            boolean nextAce = ace || card == 1;
+            int total = value(nextHard, nextAce);
+            if (total > 21) {
+                value -= chance;
+                continue;
+            }
+            draw(card);
+            var outcomes = dealerStart();
+            var stood = stood(outcomes);
+            var next = total < 21 ? played(nextHard, nextAce, stood) : null;
+            undraw(card);
+            for (var row : outcomes) {
+                if (row == null) {
+                    continue;
+                }
+                for (int f = 0; f <= BUST; f++) {
+                    if (f == BUST) {
+                        value += chance * row[f];
+                    } else if (total == 21) {
+                        value += chance * row[f] * (f == 21 ? 0 : 1);
+                    } else {
+                        value += chance * row[f] * next[f];
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of doubling before the dealer played, which is
+     * decided against the dealer's first two cards.
+     */
+    private double doubleBefore(int hard, boolean ace) {
+        double value = 0;
+        for (int card = 1; card <= 10; card++) {
+            if (counts[card] == 0) {
+                continue;
+            }
+            double chance = chance(card);
+            int total = value(hard + card, ace || card == 1);
+            if (total > 21) {
+                value -= 2 * chance;
+                continue;
+            }
+            draw(card);
+            var outcomes = dealerStart();
+            undraw(card);
+            for (int d = 0; d < outcomes.length; d++) {
+                if (outcomes[d] != null) {
+                    value += 2 * chance * sum(outcomes[d]) * Integer.compare(total, d);
+                }
+            }
+        }
+        return value;
+    }
+
+    private static double sum(double[] chances) {
+        double sum = 0;
+        for (double chance : chances) {
+            sum += chance;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the value of splitting a pair of the given card, as two hands
+     * each drawing a card and taking their best option.
+     */
+    private double split(int pair) {
+        double value = 0;
+        for (int card = 1; card <= 10; card++) {
+            if (counts[card] == 0) {
+                continue;
+            }
+            double chance = chance(card);
+            int hard = pair + card;
+            boolean ace = pair == 1 || card == 1;
+            if (value(hard, ace) == 21) {
+                value += 2 * chance; // wins outright
+                continue;
+            }
+            draw(card);
+            double best = standBefore(hard, ace);
+            if (remaining > 0) {
+                best = Math.max(best, Math.max(hitBefore(hard, ace), doubleBefore(hard, ace)));
+            }
+            undraw(card);
+            value += 2 * chance * best;
+        }
+        return value;
+    }
+
+}
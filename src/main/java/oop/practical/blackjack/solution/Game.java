@@ -0,0 +1,447 @@
+package oop.practical.blackjack.solution;
+
+/**
+ * The rules of a round, played against a deck without any rendering. Each
+ * action returns null on success or a message describing why it wasn't
+ * allowed; {@link Commands} turns these into its command output and
+ * {@link Simulator} drives them directly.
+ */
+public final class Game {
+    private Deck deck;
+    private Player player;
+    private Dealer dealer;
+    private boolean dealerPlayed; // the dealer has drawn to 17 this round
+    private final boolean counted; // false for a copy, whose rounds are only hypothetical
+
+    public Game() {
+        counted = true;
+    }
+
+    /**
+     * Creates a copy of the game to play a hypothetical round on, dealing
+     * from a copy of the deck (see {@link Deck#Deck(Deck)}). Nothing it does
+     * is counted in {@link Metrics}.
+     */
+    Game(Game game) {
+        deck = game.deck != null ? new Deck(game.deck) : null;
+        player = game.player != null ? new Player(game.player) : null;
+        dealer = game.dealer != null ? new Dealer(game.dealer) : null;
+        dealerPlayed = game.dealerPlayed;
+        counted = false;
+    }
+
+    public Deck getDeck() {
+        return deck;
+    }
+
+    public void setDeck(Deck deck) {
+        this.deck = deck;
+    }
+
+    public Player getPlayer() {
+        return player; // null until the first round is dealt
+    }
+
+    public Dealer getDealer() {
+        return dealer; // null until the first round is dealt
+    }
+
+    /**
+     * Replaces the whole state of the game, as read from a {@link Snapshot}.
+     */
+    void restore(Deck deck, Player player, Dealer dealer, boolean dealerPlayed) {
+        this.deck = deck;
+        this.player = player;
+        this.dealer = dealer;
+        this.dealerPlayed = dealerPlayed;
+    }
+
+    /**
+     * Deals a new round from the deck, which must have been set.
+     */
+    public String deal() {
+        // A shoe reshuffles here once its cut card has come out
+        deck.beginRound();
+
+        // If deck does not have enough cards to deal, record an error
+        if (deck.getSize() < 4) {
+            return "Not enough cards to deal.";
+        }
+
+
+        // deal the cards, reusing the player and dealer from the last round
+        if (player == null) {
+            player = new Player();
+            dealer = new Dealer();
+        } else {
+            player.reset();
+            dealer.reset();
+        }
+        dealerPlayed = false;
+        if (Metrics.ENABLED && counted) {
+            Metrics.count(Metrics.Counter.HANDS_DEALT);
+        }
+        Hand hand = player.getMainHand();
+        hand.addCard(deck.deal());
+        dealer.addCard(deck.deal());
+        hand.addCard(deck.deal());
+        dealer.addCard(deck.deal());
+
+
+        // Check for Blackjack in the player's main hand and the dealer's hand
+        boolean playerMainHandBlackjack = hand.isBlackjack();
+        boolean dealerHasBlackjack = dealer.hasBlackjack();
+        // Determine outcome
+        if (playerMainHandBlackjack && dealerHasBlackjack) {
+            hand.setStatus(Hand.Status.TIED);
+            dealer.setStatus(Hand.Status.TIED);
+            return null;
+        } else if (playerMainHandBlackjack) {
+            hand.setStatus(Hand.Status.WON);
+            dealer.setStatus(Hand.Status.LOST);
+            return null;
+        } else if (dealerHasBlackjack) {
+            hand.setStatus(Hand.Status.LOST);
+            dealer.setStatus(Hand.Status.WON);
+            return null;
+        }
+        hand.setStatus(Hand.Status.PLAYING);
+        dealer.setStatus(Hand.Status.WAITING);
+
+        return null;
+    }
+
+
+
+    public String hit() {
+        if (deck == null || deck.isEmpty()) {
+            return "The deck is empty, cannot hit.";
+        }
+
+        Hand mainHand = player.getMainHand();
+        Hand splitHand = player.getSplitHand(); // null unless the player has split
+
+        // Determine which hand to deal to, moving on from a hand that is finished
+        Hand hand = currentHand();
+        if (hand.getStatus() != Hand.Status.PLAYING) {
+            return "The hand is not in play.";
+        }
+
+        // Deal a card to the current hand (main or split)
+        hand.addCard(deck.deal());
+
+        // Evaluate the player's current hand value
+        int handValue = hand.getValue();
+
+        // Check for player bust in the current hand
+        if (hand.isBusted()) {
+            if (Metrics.ENABLED && counted) {
+                Metrics.count(Metrics.Counter.BUSTS);
+            }
+            hand.setStatus(Hand.Status.BUSTED);
+            if (hand == splitHand) {
+                dealer.setStatusSplit(Hand.Status.WON); // Set dealer's split status to won because the split hand busted
+            } else {
+                dealer.setStatus(Hand.Status.WON); // Set dealer's main status to won because the main hand busted
+                if (splitHand == null) {
+                    dealer.setStatusSplit(Hand.Status.WON); // Dealer wins the split status by default as there is no split hand
+                }
+            }
+            // Play the split hand next if there is one; otherwise the last hand is finished
+            if (!nextHandInPlay()) {
+                settleResolvedHands();
+            }
+            return null;
+        }
+
+        // Dealer hits if the player has not busted and the dealer's hand value is 16 or less
+        if (mainHand.getStatus() != Hand.Status.BUSTED || (splitHand != null && splitHand.getStatus() != Hand.Status.BUSTED)) {
+            dealerPlayed = true;
+            while (dealer.calculateHandValue() <= 16) {
+                int card = deck.deal();
+                if (card == -1) {
+                    break; // the dealer stands on what they have
+                }
+                dealer.addCard(card);
+            }
+        }
+
+        int dealerHandValue = dealer.calculateHandValue();
+
+        // Check for dealer bust
+        if (dealer.isBusted()) {
+            dealer.setStatus(Hand.Status.BUSTED);
+            dealer.setStatusSplit(Hand.Status.BUSTED);
+            hand.setStatus(Hand.Status.WON);
+        }
+        // Check for a tie if both player and dealer have 21
+        else if (handValue == 21 && dealerHandValue == 21) {
+            hand.setStatus(Hand.Status.TIED);
+            dealer.setStatus(Hand.Status.TIED);
+            dealer.setStatusSplit(Hand.Status.TIED);
+        }
+        // Player has 21 but dealer does not
+        else if (handValue == 21) {
+            hand.setStatus(Hand.Status.WON);
+            dealer.setStatus(Hand.Status.LOST);
+            dealer.setStatusSplit(Hand.Status.LOST);
+        }
+        // If nobody busted or has exactly 21, continue the game
+        else {
+            hand.setStatus(Hand.Status.PLAYING);
+            // Dealer stands if they have 17 or more
+            if (dealerHandValue >= 17) {
+                dealer.setStatus(Hand.Status.WAITING);
+            }
+        }
+
+        if (hand.getStatus().isFinished() && player.getCurrentHandIndex() == player.getHandCount() - 1) {
+            settleResolvedHands();
+        }
+
+        return null;
+    }
+
+
+
+    public String stand() {
+        if (player == null || dealer == null) {
+            return "Game not set up correctly.";
+        }
+        if(deck.isEmpty() && player.getMainHand().getStatus() == Hand.Status.WON){
+            return "game over or somthing else";
+        }
+
+        // determine which hand  player is standing on and set status to resolved
+        Hand hand = currentHand();
+        if (hand.getStatus() != Hand.Status.PLAYING) {
+            return "The hand is not in play.";
+        }
+        hand.setStatus(Hand.Status.RESOLVED);
+
+        // If the player has a split hand, the game should now wait for the player's action on the split hand
+        if (!nextHandInPlay()) {
+            // if no hand is left, the dealer takes their turn after player stand
+            playDealerHand();
+            determineOutcomes();
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Returns the hand the next action applies to without moving on to it,
+     * or null once the round is over.
+     */
+    public Hand getCurrentHand() {
+        if (player == null) {
+            return null;
+        }
+        for (int i = player.getCurrentHandIndex(); i < player.getHandCount(); i++) {
+            Hand hand = player.getHand(i);
+            if (hand.getStatus() == Hand.Status.PLAYING || hand.getStatus() == Hand.Status.WAITING) {
+                return hand;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A round is over once no hand from the current one onwards is left for
+     * the player to act on.
+     */
+    public boolean isRoundOver() {
+        return getCurrentHand() == null;
+    }
+
+    /**
+     * Whether the dealer has already drawn their hand this round, which
+     * happens on the first hit that doesn't bust rather than after the
+     * player's last hand.
+     */
+    public boolean hasDealerPlayed() {
+        return dealerPlayed;
+    }
+
+    /**
+     * Whether {@link #split()} would be allowed right now.
+     */
+    public boolean canSplit() {
+        Hand mainHand = player.getMainHand();
+        return !player.hasSplitHand() && mainHand.canSplit() && mainHand.getStatus() == Hand.Status.PLAYING;
+    }
+
+    /**
+     * Returns the hand the next action applies to, first moving past the
+     * current hand if it is already finished.
+     */
+    private Hand currentHand() {
+        if (player.getCurrentHand().getStatus().isFinished()) {
+            nextHandInPlay();
+        }
+        return player.getCurrentHand();
+    }
+
+    /**
+     * Moves on to the next hand that still needs the player's action, setting
+     * it to playing, or returns false once every hand has been played.
+     */
+    private boolean nextHandInPlay() {
+        while (player.nextHand()) {
+            Hand hand = player.getCurrentHand();
+            if (!hand.getStatus().isFinished()) {
+                hand.setStatus(Hand.Status.PLAYING);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasResolvedHand() {
+        for (int i = 0; i < player.getHandCount(); i++) {
+            if (player.getHand(i).getStatus() == Hand.Status.RESOLVED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called once the player's last hand has finished by busting or reaching
+     * 21: any hand the player stood on earlier is still resolved, so the
+     * dealer plays out their hand and decides it now.
+     */
+    private void settleResolvedHands() {
+        if (hasResolvedHand()) {
+            playDealerHand();
+            determineOutcomes();
+        }
+    }
+
+    private void playDealerHand() {
+        dealerPlayed = true;
+        while (dealer.calculateHandValue() < 17) {
+            int card = deck.deal();
+            if (card == -1) {
+                break; // the dealer stands on what they have
+            }
+            dealer.addCard(card);
+        }
+    }
+    private void determineOutcomeForHand(Hand hand) {
+        Hand.Status outcome = hand.against(dealer.getHand());
+        hand.setStatus(outcome);
+        // the dealer's status only changes here for the main hand, or for the split hand if none was set yet
+        Hand.Status statusSplit = dealer.getStatusSplit();
+        if (hand == player.getMainHand() || statusSplit == null) {
+            dealer.setStatus(switch (outcome) {
+                case WON -> Hand.Status.LOST;
+                case TIED -> Hand.Status.TIED;
+                default -> Hand.Status.WON;
+            });
+        } else {
+            dealer.setStatus(statusSplit);
+        }
+    }
+    private void determineOutcomes() {
+        // determine outcome for each resolved hand, main hand first
+        for (int i = 0; i < player.getHandCount(); i++) {
+            Hand hand = player.getHand(i);
+            if (hand.getStatus() == Hand.Status.RESOLVED) {
+                determineOutcomeForHand(hand);
+            }
+        }
+    }
+    public String split() {
+        if (player == null || dealer == null || deck == null) {
+            return "Game not set up correctly.";
+        }
+
+        // Check if the player's main hand can be split
+        if (!player.getMainHand().canSplit() || player.getMainHand().getStatus() != Hand.Status.PLAYING) {
+            return "Cannot split hand.";
+        }
+        if(player.hasSplitHand()){
+            return "ALREADY SPLITTED HAND BOZO";
+        }
+        if (deck.getSize() < 2) {
+            return "The deck is empty, cannot split.";
+        }
+
+        // perform split
+        Hand mainHand = player.getMainHand();
+        Hand splitHand = player.split();
+        if (Metrics.ENABLED && counted) {
+            Metrics.count(Metrics.Counter.SPLITS);
+        }
+
+        // deal a new card to each of new hands
+        mainHand.addCard(deck.deal()); // Add to the original hand
+        splitHand.addCard(deck.deal());  // Add to the split hand
+
+        // if one of hands has a value of 21 after split, auto win
+        if (mainHand.isBlackjack()) {
+            mainHand.setStatus(Hand.Status.WON);
+            dealer.setStatus(Hand.Status.LOST);
+
+        } else {
+            mainHand.setStatus(Hand.Status.PLAYING);
+        }
+
+        if (splitHand.isBlackjack()) {
+            splitHand.setStatus(Hand.Status.WON);
+            dealer.setStatusSplit(Hand.Status.LOST);
+        } else {
+            splitHand.setStatus(Hand.Status.WAITING);
+            dealer.setStatusSplit(Hand.Status.WAITING); //dealer  waiting for the outcome of the split
+
+        }
+
+        return null;
+    }
+
+    public String doubleDown() {
+        if (deck == null || deck.isEmpty()) {
+            return "The deck is empty, cannot double down.";
+        }
+        if (player == null || dealer == null) {
+            return "Game not set up correctly.";
+        }
+
+        Hand hand = currentHand();
+        if (hand.getStatus() != Hand.Status.PLAYING) {
+            return "The hand is not in play.";
+        }
+
+        // The player can only double down if they have exactly two cards in their current hand
+        if (hand.size() != 2) {
+            return "Double down is only allowed on the initial hand of two cards.";
+        }
+
+        // Give one additional card to the current hand
+        hand.addCard(deck.deal());
+        hand.setDoubled();
+        if (Metrics.ENABLED && counted) {
+            Metrics.count(Metrics.Counter.DOUBLES);
+            if (hand.isBusted()) {
+                Metrics.count(Metrics.Counter.BUSTS);
+            }
+        }
+
+        // After doubling down, the player's turn ends for the current hand
+        hand.setStatus(Hand.Status.RESOLVED);
+
+        // Determine the outcome for the hand that just played
+        determineOutcomeForHand(hand);
+
+        // Switch to the split hand if there is one, otherwise all player hands are resolved
+        if (!nextHandInPlay()) {
+            // If the double down was on the split hand, or there's no split hand, play dealer's hand
+            playDealerHand();
+            determineOutcomes();
+        }
+
+        return null;
+    }
+}
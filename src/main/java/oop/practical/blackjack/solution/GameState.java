@@ -0,0 +1,178 @@
+package oop.practical.blackjack.solution;
+
+import java.util.function.Function;
+
+/**
+ * An immutable round of {@link Game}, for search and what-if analysis. Every
+ * action returns a new state and leaves this one as it was, so branching is
+ * just keeping a reference. A state holds a game that is never acted on
+ * itself: each action plays on a copy of it, through Game's own rules. The
+ * copy shares the deck's cards rather than copying them (see
+ * {@link Deck#Deck(Deck)}), so an action costs a few small objects.
+ *
+ * <p>Because the rules are Game's, so are the messages an action that isn't
+ * allowed gives (see {@link #getError()}). The differences are that nothing
+ * is counted in {@link Metrics}, since these rounds are only hypothetical,
+ * and that the deck never reshuffles.
+ */
+public final class GameState {
+    private final Game game; // only ever copied, never acted on
+    private final String error;
+
+    private GameState(Game game, String error) {
+        this.game = game;
+        this.error = error;
+    }
+
+    /**
+     * Deals a round from the cards left in the deck, without dealing them
+     * from the deck itself.
+     */
+    public static GameState deal(Deck deck) {
+        if (deck.getSize() < 4) {
+            throw new IllegalArgumentException("Not enough cards to deal.");
+        }
+        var game = new Game();
+        game.setDeck(deck);
+        return new GameState(game, null).deal();
+    }
+
+    /**
+     * Returns the game's round as it stands, which must have been dealt.
+     */
+    public static GameState of(Game game) {
+        if (game.getPlayer() == null) {
+            throw new IllegalStateException("No round has been dealt.");
+        }
+        return new GameState(new Game(game), null);
+    }
+
+    /**
+     * Returns Game's message for why the action that made this state wasn't
+     * allowed, or null if it was.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public int getDeckSize() {
+        return game.getDeck().getSize();
+    }
+
+    public int getHandCount() {
+        return game.getPlayer().getHandCount();
+    }
+
+    public int getCurrentHandIndex() {
+        return game.getPlayer().getCurrentHandIndex();
+    }
+
+    public int getValue(int hand) {
+        return hand(hand).getValue();
+    }
+
+    public Hand.Status getStatus(int hand) {
+        return hand(hand).getStatus();
+    }
+
+    public int getDealerValue() {
+        return game.getDealer().calculateHandValue();
+    }
+
+    public boolean hasDealerPlayed() {
+        return game.hasDealerPlayed();
+    }
+
+    private Hand hand(int index) {
+        if (index < 0 || index >= getHandCount()) {
+            throw new IndexOutOfBoundsException("Hand " + index + " of " + getHandCount());
+        }
+        return game.getPlayer().getHand(index);
+    }
+
+    /**
+     * Whether {@link #split()} would be allowed, as in {@link Game#canSplit()}.
+     */
+    public boolean canSplit() {
+        return game.canSplit();
+    }
+
+    /**
+     * Whether the round is over, as in {@link Game#isRoundOver()}.
+     */
+    public boolean isRoundOver() {
+        return game.isRoundOver();
+    }
+
+    /**
+     * Returns what the round won or lost in units of the bet, settled as
+     * {@link Simulator} does (see {@link Hand#getNet(boolean)}).
+     */
+    public double getNet() {
+        if (!isRoundOver()) {
+            throw new IllegalStateException("The round is not over.");
+        }
+        Player player = game.getPlayer();
+        double net = 0;
+        for (int i = 0; i < player.getHandCount(); i++) {
+            net += player.getHand(i).getNet(player.hasNatural());
+        }
+        return net;
+    }
+
+    /**
+     * Deals the next round from the cards left, keeping this round if there
+     * aren't enough.
+     */
+    public GameState deal() {
+        return play(Game::deal);
+    }
+
+    public GameState hit() {
+        return play(Game::hit);
+    }
+
+    public GameState stand() {
+        return play(Game::stand);
+    }
+
+    public GameState split() {
+        return play(Game::split);
+    }
+
+    public GameState doubleDown() {
+        return play(Game::doubleDown);
+    }
+
+    /**
+     * Applies a {@link Strategy} action, so a search can branch on each.
+     */
+    public GameState apply(Strategy.Action action) {
+        return switch (action) {
+            case HIT -> hit();
+            case STAND -> stand();
+            case SPLIT -> split();
+            case DOUBLE_DOWN -> doubleDown();
+        };
+    }
+
+    private GameState play(Function<Game, String> action) {
+        var next = new Game(game);
+        return new GameState(next, action.apply(next));
+    }
+
+    /**
+     * Returns the same text as {@link Player#inspectHand()}.
+     */
+    public String inspectPlayer() {
+        return game.getPlayer().inspectHand();
+    }
+
+    /**
+     * Returns the same text as {@link Dealer#inspect(boolean)}.
+     */
+    public String inspectDealer() {
+        return game.getDealer().inspect(game.getPlayer().hasSplitHand());
+    }
+
+}
@@ -0,0 +1,213 @@
+package oop.practical.blackjack.solution;
+
+import java.util.Arrays;
+
+/**
+ * A hand of cards shared by {@link Player} and {@link Dealer}. Cards are kept
+ * as ordinals (see {@link Card#of(int)}) with running totals, so every query
+ * is O(1), and {@link #clear()} keeps the storage for the next round.
+ */
+public class Hand {
+    /**
+     * The state of a player's hand. A hand starts out WAITING, is PLAYING
+     * while the player acts on it, and RESOLVED once they stand or double
+     * down, until the dealer's hand decides it. BUSTED, WON, LOST and TIED
+     * are final.
+     */
+    public enum Status {
+        WAITING, PLAYING, RESOLVED, BUSTED, WON, LOST, TIED;
+
+        private final String text = name().toLowerCase(); // rendered by inspect
+
+        public boolean isFinished() {
+            return ordinal() >= BUSTED.ordinal();
+        }
+
+        public boolean canTransitionTo(Status next) {
+            switch (this) {
+                case WAITING:
+                    return next != RESOLVED && next != BUSTED; // a hand can be decided as soon as it's dealt
+                case PLAYING:
+                    return next != WAITING;
+                case RESOLVED:
+                    return next.isFinished();
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static final int CAPACITY = 12; // grows if a hand ever needs more
+
+    private byte[] cards;
+    private int size;
+    // running total with every Ace counted as 1, updated as cards are added
+    private int hardTotal;
+    private int aces;
+    private Status status = Status.WAITING;
+    private boolean doubled; // the bet on this hand was doubled down
+
+    public Hand() {
+        cards = new byte[CAPACITY];
+    }
+
+    /**
+     * Creates a copy of the hand.
+     */
+    Hand(Hand hand) {
+        cards = hand.cards.clone();
+        size = hand.size;
+        hardTotal = hand.hardTotal;
+        aces = hand.aces;
+        status = hand.status;
+        doubled = hand.doubled;
+    }
+
+    public void addCard(Card card) {
+        addCard(card.ordinal());
+    }
+
+    public void addCard(int ordinal) {
+        if (size == cards.length) {
+            cards = Arrays.copyOf(cards, size * 2);
+        }
+        cards[size++] = (byte) ordinal;
+        hardTotal += Card.hardValue(ordinal);
+        if (Card.isAce(ordinal)) {
+            aces++;
+        }
+    }
+
+    /**
+     * Returns the ordinal of the card at the given index.
+     */
+    public int getCard(int index) {
+        return cards[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getValue() {
+        return isSoft() ? hardTotal + 10 : hardTotal;
+    }
+
+    /**
+     * A hand is soft when one of its Aces can count as 11 without busting
+     * (at most one ever can, since two would already make 22).
+     */
+    public boolean isSoft() {
+        return aces > 0 && hardTotal <= 11;
+    }
+
+    public boolean isBusted() {
+        return hardTotal > 21;
+    }
+
+    public boolean isBlackjack() {
+        return size == 2 && getValue() == 21; // blackjack only possible with two cards
+    }
+
+    public boolean canSplit() {
+        // REVIION HAS TO COMPARE VALS ONLY, not ranks
+        return size == 2 && Card.value(cards[0]) == Card.value(cards[1]);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Moves the hand to the given status, throwing if the state machine
+     * doesn't allow it (see {@link Status#canTransitionTo}).
+     */
+    public void setStatus(Status status) {
+        if (!this.status.canTransitionTo(status)) {
+            throw new IllegalStateException("Invalid hand transition: " + this.status + " -> " + status);
+        }
+        this.status = status;
+    }
+
+    public boolean isDoubled() {
+        return doubled;
+    }
+
+    void setDoubled() {
+        doubled = true;
+    }
+
+    /**
+     * Returns how the hand ends against the dealer's finished hand once the
+     * player is done with it: BUSTED, or else WON, LOST or TIED on the
+     * totals. Naturals are left to the caller. {@link Game} and {@link Table}
+     * both decide a stood hand with this.
+     */
+    Status against(Hand dealer) {
+        if (isBusted()) {
+            return Status.BUSTED;
+        }
+        if (dealer.isBusted() || getValue() > dealer.getValue()) {
+            return Status.WON;
+        }
+        return getValue() < dealer.getValue() ? Status.LOST : Status.TIED;
+    }
+
+    /**
+     * Returns what the hand won or lost once it's settled, in units of the
+     * bet: a natural pays 3:2 and a doubled hand counts twice. Throws
+     * IllegalStateException if the hand hasn't been settled.
+     */
+    public double getNet(boolean natural) {
+        int bet = doubled ? 2 : 1;
+        return switch (status) {
+            case WON -> natural ? 1.5 : bet;
+            case LOST, BUSTED -> -bet;
+            case TIED -> 0;
+            default -> throw new IllegalStateException("Unsettled hand: " + status);
+        };
+    }
+
+    /**
+     * Sets the status and doubled flag as they were saved in a
+     * {@link Snapshot}, bypassing the state machine.
+     */
+    void restore(Status status, boolean doubled) {
+        this.status = status;
+        this.doubled = doubled;
+    }
+
+    /**
+     * Moves the second card of this hand into the given (empty) hand.
+     */
+    void splitInto(Hand other) {
+        int card = cards[--size];
+        hardTotal -= Card.hardValue(card);
+        if (Card.isAce(card)) {
+            aces--;
+        }
+        other.addCard(card);
+    }
+
+    public void clear() {
+        size = 0;
+        hardTotal = 0;
+        aces = 0;
+        status = Status.WAITING;
+        doubled = false;
+    }
+
+    void appendCards(StringBuilder sb) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(Card.glyph(cards[i]));
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only journal of a {@link Commands} session for audit and
+ * recovery. Every command is appended with its output, like a {@link Replay}
+ * step, to memory-mapped segment files in a directory, rolling over to a new
+ * segment when one fills. Each segment starts with a {@link Snapshot} of the
+ * session, so opening an existing journal recovers the session from the last
+ * segment alone: its snapshot is restored and the commands after it are run
+ * again, checking every output against the journal.
+ *
+ * <p>A snapshot can't hold the session's random generator, so taking one also
+ * rebases the session onto a fresh seed stored beside it; that's what makes
+ * the replay shuffle the same way. Each seed is drawn from the one before,
+ * so a recovered session goes on exactly as the original would have.
+ * Appending a command is a few puts into the mapped segment, and how often
+ * those pages are forced to disk is up to the {@link Sync} policy. Like
+ * Commands, a journal isn't safe for concurrent use, though under
+ * {@link Sync#GROUP} it forces from a thread of its own.
+ */
+public final class Journal implements Closeable, Flushable {
+
+    public enum Sync {
+        /**
+         * Never forces a segment, leaving it to the OS. Everything survives
+         * the process crashing, but not necessarily the machine.
+         */
+        NONE,
+        /**
+         * Forces whatever has been appended every {@link #GROUP_MILLIS}
+         * milliseconds from a background thread, and on rolling a segment,
+         * flushing and closing. Commands never wait for the disk and all
+         * those in an interval share one force, at the risk of losing the
+         * last interval to a power failure.
+         */
+        GROUP,
+        /**
+         * Forces every command before returning its output.
+         */
+        ALWAYS
+    }
+
+    static final long GROUP_MILLIS = 10;
+    static final int SEGMENT_SIZE = 64 << 20;
+
+    private static final int MAGIC = 0x424A4A31; // "BJJ1", the start of every segment
+    private static final int HEADER = 8; // a record's body length and CRC32C, then the body
+    private static final int MINIMUM = 1 + 8; // every body starts with its type and sequence number
+    private static final byte SNAPSHOT = 1; // then the seed and the snapshot
+    private static final byte COMMAND = 2; // then the command's length, the command and its output
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final Sync sync;
+    private final int segmentSize;
+    private final CRC32C crc = new CRC32C();
+    private final Object lock = new Object(); // held while forcing or switching segments
+    private final Thread syncer; // forces every GROUP_MILLIS under Sync.GROUP, else null
+    private long seed; // the last snapshot's, which the next one's is drawn from
+    private Commands commands;
+    private MappedByteBuffer segment;
+    private long sequence; // the number of commands journaled, so the next one's sequence number
+    private long recovered;
+    private volatile int written; // the end of the last whole record in the segment
+    private int synced; // the position in the segment forced up to, guarded by lock
+
+    /**
+     * Opens the journal in the given directory, recovering its session if
+     * there is one or starting a new session otherwise.
+     */
+    public Journal(Path directory, Sync sync) throws IOException {
+        this(directory, sync, SEGMENT_SIZE, new SplittableRandom().nextLong());
+    }
+
+    Journal(Path directory, Sync sync, int segmentSize, long seed) throws IOException {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Segments must be at least 4096 bytes.");
+        }
+        this.directory = directory;
+        this.sync = sync;
+        this.segmentSize = segmentSize;
+        this.seed = seed;
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        for (int i = segments.size() - 1; i >= 0 && commands == null; i--) {
+            if (!recover(segments.get(i))) {
+                // a segment without a whole snapshot was cut off while rolling
+                Files.delete(segments.get(i));
+            }
+        }
+        if (commands == null) {
+            commands = new Commands(seed);
+            roll();
+            checkpoint();
+        }
+        recovered = sequence;
+        syncer = sync == Sync.GROUP ? Thread.ofPlatform().name("journal-sync").daemon().start(this::syncEvery) : null;
+    }
+
+    private void syncEvery() {
+        try {
+            while (true) {
+                Thread.sleep(GROUP_MILLIS);
+                flush();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Returns the number of commands journaled, including those recovered.
+     */
+    public long getCount() {
+        return sequence;
+    }
+
+    /**
+     * Returns the number of commands recovered when the journal was opened.
+     */
+    public long getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Parses and executes a command, appending it and its output to the
+     * journal before returning the output. A command that throws is
+     * journaled with Main's output for it, then rethrown.
+     */
+    public String execute(String command) throws ParseException, IOException {
+        var ast = Lisp.parse(command);
+        String output;
+        try {
+            output = commands.execute(ast);
+        } catch (RuntimeException e) {
+            append(command, unexpected(e));
+            throw e;
+        }
+        append(command, output);
+        return output;
+    }
+
+    private static String unexpected(RuntimeException e) {
+        return "Unexpected exception: " + e.getMessage();
+    }
+
+    private void append(String command, String output) throws IOException {
+        int commandLength = encodedLength(command);
+        int outputLength = encodedLength(output);
+        int size = HEADER + MINIMUM + 4 + commandLength + outputLength;
+        boolean roll = size > segment.remaining();
+        if (roll) {
+            // the command opens the next segment, ahead of the snapshot it's already in
+            roll();
+            if (size > segment.remaining()) {
+                throw new IllegalStateException("A record of " + size + " bytes doesn't fit in a segment.");
+            }
+        }
+        int start = begin(COMMAND, sequence++);
+        segment.putInt(commandLength);
+        put(command, commandLength);
+        put(output, outputLength);
+        end(start);
+        if (roll) {
+            checkpoint();
+        } else if (sync == Sync.ALWAYS) {
+            flush();
+        }
+    }
+
+    /**
+     * Snapshots the session into the segment, rebasing it on the next seed.
+     */
+    private void checkpoint() {
+        ByteBuffer snapshot = commands.snapshot();
+        seed = new SplittableRandom(seed).nextLong();
+        var rebased = new Commands(seed);
+        rebased.restore(snapshot.duplicate());
+        commands = rebased;
+        if (HEADER + MINIMUM + 8 + snapshot.remaining() > segment.remaining()) {
+            throw new IllegalStateException("A snapshot of " + snapshot.remaining() + " bytes doesn't fit in a segment.");
+        }
+        int start = begin(SNAPSHOT, sequence);
+        segment.putLong(seed).put(snapshot);
+        end(start);
+        if (sync != Sync.NONE) {
+            flush();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (segment != null && sync != Sync.NONE) {
+            flush();
+        }
+        var path = directory.resolve(String.format("%020d", sequence) + SUFFIX);
+        MappedByteBuffer next;
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            next = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        next.putInt(MAGIC);
+        synchronized (lock) {
+            segment = next;
+            written = next.position();
+            synced = 0;
+        }
+    }
+
+    private int begin(byte type, long sequence) {
+        int start = segment.position();
+        segment.position(start + HEADER);
+        segment.put(type).putLong(sequence);
+        return start;
+    }
+
+    /**
+     * Fills in the header of the record from start, writing its length last
+     * so the record only becomes visible once it's whole.
+     */
+    private void end(int start) {
+        int length = segment.position() - start - HEADER;
+        crc.reset();
+        crc.update(segment.slice(start + HEADER, length));
+        segment.putInt(start + 4, (int) crc.getValue());
+        segment.putInt(start, length);
+        written = segment.position();
+    }
+
+    private static int encodedLength(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) >= 0x80) {
+                return string.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return string.length();
+    }
+
+    private void put(String string, int length) {
+        if (length != string.length()) {
+            segment.put(string.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        // ASCII, which is nearly everything, goes straight in without encoding
+        for (int i = 0; i < length; i++) {
+            segment.put((byte) string.charAt(i));
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk, whatever the policy.
+     */
+    @Override
+    public void flush() {
+        synchronized (lock) {
+            int end = written;
+            if (segment != null && end > synced) {
+                segment.force(synced, end - synced);
+                synced = end;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (syncer != null) {
+            syncer.interrupt();
+            try {
+                syncer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (sync != Sync.NONE) {
+            flush();
+        }
+        synchronized (lock) {
+            // the mapping itself goes when the buffer is collected
+            segment = null;
+        }
+    }
+
+    /**
+     * Recovers the session from a segment, leaving it ready to append to
+     * after the last whole record with the rest zeroed, or returns false if
+     * it has no snapshot.
+     */
+    private boolean recover(Path path) throws IOException {
+        MappedByteBuffer in;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < 4 || channel.size() > Integer.MAX_VALUE) {
+                return false;
+            }
+            in = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (in.getInt() != MAGIC) {
+            return false;
+        }
+        Commands recovering = null;
+        long expected = 0;
+        while (true) {
+            int start = in.position();
+            int length = next(in, crc);
+            if (length == -1) {
+                break;
+            }
+            int end = start + HEADER + length;
+            in.position(start + HEADER);
+            byte type = in.get();
+            long sequence = in.getLong();
+            if (type == SNAPSHOT && recovering == null) {
+                seed = in.getLong();
+                recovering = new Commands(seed);
+                recovering.restore(in.slice(in.position(), end - in.position()));
+                expected = sequence;
+            } else if (type == COMMAND && recovering != null && sequence == expected) {
+                var step = step(in, end);
+                replay(recovering, step, sequence);
+                expected++;
+            } else if (type != COMMAND || recovering != null) {
+                // a stale record left behind a torn one
+                in.position(start);
+                break;
+            }
+            in.position(end);
+        }
+        if (recovering == null) {
+            return false;
+        }
+        // Clear whatever follows, so a stale record with a valid checksum can't
+        // end up right after the records appended from here and be replayed
+        int end = in.position();
+        for (int i = end; i < in.limit(); i++) {
+            if (in.get(i) != 0) {
+                in.put(i, (byte) 0);
+            }
+        }
+        in.force(end, in.limit() - end);
+        commands = recovering;
+        segment = in;
+        sequence = expected;
+        written = in.position();
+        synced = in.position();
+        return true;
+    }
+
+    private static void replay(Commands commands, Replay.Step step, long sequence) {
+        String output;
+        try {
+            output = commands.execute(Lisp.parse(step.command()));
+        } catch (ParseException e) {
+            output = "Error parsing input: " + e.getMessage();
+        } catch (RuntimeException e) {
+            output = unexpected(e);
+        }
+        if (!output.equals(step.output())) {
+            throw new IllegalStateException("Command " + sequence + " " + step.command() + " expected:\n" + step.output() + "\nbut was:\n" + output);
+        }
+    }
+
+    /**
+     * Returns the length of the body of the whole record at the buffer's
+     * position, or -1 if there isn't one there.
+     */
+    private static int next(ByteBuffer in, CRC32C crc) {
+        int start = in.position();
+        if (in.remaining() < HEADER + MINIMUM) {
+            return -1;
+        }
+        int length = in.getInt(start);
+        if (length < MINIMUM || length > in.remaining() - HEADER) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(in.slice(start + HEADER, length));
+        return (int) crc.getValue() == in.getInt(start + 4) ? length : -1;
+    }
+
+    private static Replay.Step step(ByteBuffer in, int end) {
+        byte[] command = new byte[in.getInt()];
+        in.get(command);
+        byte[] output = new byte[end - in.position()];
+        in.get(output);
+        return new Replay.Step(new String(command, StandardCharsets.UTF_8), new String(output, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads every command in the journal in the given directory, in the
+     * order they were executed: the audit trail.
+     */
+    public static List<Replay.Step> read(Path directory) throws IOException {
+        var steps = new ArrayList<Replay.Step>();
+        var crc = new CRC32C();
+        for (Path path : segments(directory)) {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (in.remaining() < 4 || in.getInt() != MAGIC) {
+                continue;
+            }
+            long expected = -1;
+            int length;
+            while ((length = next(in, crc)) != -1) {
+                int end = in.position() + HEADER + length;
+                in.position(in.position() + HEADER);
+                byte type = in.get();
+                long sequence = in.getLong();
+                if (type == COMMAND && (expected == -1 || sequence == expected)) {
+                    steps.add(step(in, end));
+                    expected = sequence + 1;
+                } else if (type == SNAPSHOT) {
+                    expected = sequence;
+                } else {
+                    break;
+                }
+                in.position(end);
+            }
+        }
+        return steps;
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // zero-padded sequence numbers, so sorting by name sorts by sequence
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+package oop.practical.blackjack.solution;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and per-command latency histograms, shown by
+ * {@code (inspect :metrics)} and published over JMX under
+ * {@code oop.practical.blackjack}.
+ *
+ * <p>Metrics are only recorded when the JVM is started with
+ * {@code -Dblackjack.metrics=true}. {@link #ENABLED} is a constant, so
+ * every recording site is guarded by {@code if (Metrics.ENABLED)} and the
+ * JIT removes it entirely when metrics are off.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("blackjack.metrics");
+
+    public enum Counter {
+        HANDS_DEALT, BUSTS, SPLITS, DOUBLES, RESHUFFLES;
+
+        private final String text = name().toLowerCase().replace('_', ' '); // rendered by inspect
+    }
+
+    /**
+     * The counters, as JMX attributes.
+     */
+    public interface CountersMXBean {
+        long getHandsDealt();
+        long getBusts();
+        long getSplits();
+        long getDoubles();
+        long getReshuffles();
+    }
+
+    /**
+     * A command's latencies in nanoseconds, as JMX attributes.
+     */
+    public interface LatencyMXBean {
+        long getCount();
+        double getMean();
+        long getP50();
+        long getP99();
+        long getMax();
+    }
+
+    // every command Commands.execute handles, in the order inspect shows them
+    private static final String[] COMMANDS = {"do", "deck", "deal", "hit", "stand", "split", "double-down", "advise", "inspect"};
+
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final Map<String, Histogram> LATENCIES = new LinkedHashMap<>();
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new LongAdder();
+        }
+        for (String command : COMMANDS) {
+            LATENCIES.put(command, new Histogram());
+        }
+        if (ENABLED) {
+            register();
+        }
+    }
+
+    private Metrics() {}
+
+    private static void register() {
+        var server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new StandardMBean(new Counters(), CountersMXBean.class, true),
+                new ObjectName("oop.practical.blackjack:type=Metrics"));
+            for (var entry : LATENCIES.entrySet()) {
+                server.registerMBean(new StandardMBean(new Latency(entry.getValue()), LatencyMXBean.class, true),
+                    new ObjectName("oop.practical.blackjack:type=Latency,name=" + entry.getKey()));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register metrics.", e);
+        }
+    }
+
+    private static final class Counters implements CountersMXBean {
+        @Override
+        public long getHandsDealt() {
+            return get(Counter.HANDS_DEALT);
+        }
+
+        @Override
+        public long getBusts() {
+            return get(Counter.BUSTS);
+        }
+
+        @Override
+        public long getSplits() {
+            return get(Counter.SPLITS);
+        }
+
+        @Override
+        public long getDoubles() {
+            return get(Counter.DOUBLES);
+        }
+
+        @Override
+        public long getReshuffles() {
+            return get(Counter.RESHUFFLES);
+        }
+    }
+
+    private record Latency(Histogram histogram) implements LatencyMXBean {
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getP50() {
+            return histogram.getValueAtPercentile(50);
+        }
+
+        @Override
+        public long getP99() {
+            return histogram.getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMax();
+        }
+    }
+
+    public static void count(Counter counter) {
+        COUNTERS[counter.ordinal()].increment();
+    }
+
+    public static long get(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * Returns the latency histogram of the given command, or null if it
+     * isn't one Commands handles.
+     */
+    public static Histogram getLatency(String command) {
+        return LATENCIES.get(command.equals("doubleDown") ? "double-down" : command);
+    }
+
+    static void recordLatency(String command, long nanos) {
+        Histogram histogram = getLatency(command);
+        if (histogram != null) {
+            histogram.record(nanos);
+        }
+    }
+
+    /**
+     * Renders the counters on the first line, then a line per command that
+     * has been executed, with latencies in microseconds.
+     */
+    public static String inspect() {
+        if (!ENABLED) {
+            return "Metrics: disabled";
+        }
+        StringBuilder sb = new StringBuilder("Metrics: ");
+        for (Counter counter : Counter.values()) {
+            if (counter.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(counter.text).append(' ').append(get(counter));
+        }
+        for (var entry : LATENCIES.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            sb.append('\n').append(entry.getKey()).append(": count ").append(histogram.getCount())
+                .append(String.format(Locale.ROOT, ", mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us",
+                    histogram.getMean() / 1e3,
+                    histogram.getValueAtPercentile(50) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getMax() / 1e3));
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,195 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Ast;
+
+import java.util.List;
+
+/**
+ * A command script compiled ahead of time, with every function resolved and
+ * every card argument parsed, so it can be executed repeatedly against fresh
+ * {@link Commands} state without interpreting the {@link Ast} again. Plans
+ * are immutable and may be shared between threads.
+ */
+public sealed interface Plan {
+
+    String execute(Commands commands);
+
+    static Plan compile(Ast ast) {
+        assert ast instanceof Ast.Function;
+        var function = (Ast.Function) ast;
+        return switch (function.name()) {
+            case "do" -> new Do(function.arguments().stream().map(Plan::compile).toList());
+            case "deck" -> Commands.isShoe(function)
+                ? new SetShoe(Commands.shoeDecks(function), Commands.shoePenetration(function))
+                : Commands.isSeed(function) ? new SetSeed(Commands.seedValue(function))
+                : new SetDeck(cards(function));
+            case "deal" -> new Deal(cards(function));
+            case "hit" -> {
+                assert function.arguments().isEmpty();
+                yield new Hit();
+            }
+            case "stand" -> {
+                assert function.arguments().isEmpty();
+                yield new Stand();
+            }
+            case "split" -> {
+                assert function.arguments().isEmpty();
+                yield new Split();
+            }
+            case "double-down", "doubleDown" -> {
+                assert function.arguments().isEmpty();
+                yield new DoubleDown();
+            }
+            case "advise" -> {
+                assert function.arguments().isEmpty();
+                yield new Advise();
+            }
+            case "inspect" -> {
+                assert function.arguments().size() == 1 && function.arguments().getFirst() instanceof Ast.Atom;
+                yield new Inspect(((Ast.Atom) function.arguments().getFirst()).name());
+            }
+            default -> new Unknown(function.name());
+        };
+    }
+
+    private static List<Card> cards(Ast.Function function) {
+        assert function.arguments().stream().allMatch(a -> a instanceof Ast.Atom);
+        return function.arguments().stream()
+            .map(a -> Card.parse(((Ast.Atom) a).name()))
+            .toList();
+    }
+
+    record Do(
+        List<Plan> plans
+    ) implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            var builder = new StringBuilder();
+            for (var plan : plans) {
+                var result = plan.execute(commands);
+                if (!result.isEmpty()) {
+                    if (!builder.isEmpty()) {
+                        builder.append('\n');
+                    }
+                    builder.append(result);
+                }
+            }
+            return builder.toString();
+        }
+
+    }
+
+    record SetDeck(
+        List<Card> cards
+    ) implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.deckOf(cards);
+        }
+
+    }
+
+    record SetShoe(
+        int decks,
+        double penetration
+    ) implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.shoe(decks, penetration);
+        }
+
+    }
+
+    record SetSeed(
+        long seed
+    ) implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.seed(seed);
+        }
+
+    }
+
+    record Deal(
+        List<Card> cards
+    ) implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.dealOf(cards);
+        }
+
+    }
+
+    record Hit() implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.hit();
+        }
+
+    }
+
+    record Stand() implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.stand();
+        }
+
+    }
+
+    record Split() implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.split();
+        }
+
+    }
+
+    record DoubleDown() implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.doubleDown();
+        }
+
+    }
+
+    record Advise() implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.advise();
+        }
+
+    }
+
+    record Unknown(
+        String name
+    ) implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.unknown(name);
+        }
+
+    }
+
+    record Inspect(
+        String name
+    ) implements Plan {
+
+        @Override
+        public String execute(Commands commands) {
+            return commands.inspect(name);
+        }
+
+    }
+
+}
@@ -1,144 +1,151 @@
 package oop.practical.blackjack.solution;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
 public class Player {
-    public List<Card> hand;
-    public List<Card> splitHand;
-    private boolean hasSplit;
-    public String status;
-    private String splitStatus;
-    private boolean isCurrentHandSplit = false; // indicates which hand is currently active
+    // hands are pooled: reset() clears them and split() reuses them before allocating
+    private Hand[] hands;
+    private int handCount;
+    private int currentHand; // index of the hand currently being played
 
 
     public Player() {
-        hand = new ArrayList<>();
-        splitHand = new ArrayList<>();
-        hasSplit = false;
+        hands = new Hand[] { new Hand(), new Hand() };
+        handCount = 1;
     }
-    public void switchToSplitHand() {
-        if (hasSplit) {
-            isCurrentHandSplit = true;
+
+    /**
+     * Creates a copy of the player and their hands.
+     */
+    Player(Player player) {
+        hands = new Hand[player.hands.length];
+        for (int i = 0; i < player.handCount; i++) {
+            hands[i] = new Hand(player.hands[i]);
         }
+        handCount = player.handCount;
+        currentHand = player.currentHand;
     }
-    public boolean isCurrentHandSplit() {
-        return isCurrentHandSplit;
+
+    /**
+     * Clears every hand so the player can be dealt a new round.
+     */
+    public void reset() {
+        for (int i = 0; i < handCount; i++) {
+            hands[i].clear();
+        }
+        handCount = 1;
+        currentHand = 0;
     }
-    public List<Card> getMainHand() {
-        return hand; // hand is the main hand
+
+    public Hand getMainHand() {
+        return hands[0]; // the hand dealt at the start of the round
     }
-    public List<Card> getSplitHand() {
-        return splitHand; // hand created after split
+    public Hand getSplitHand() {
+        return handCount > 1 ? hands[1] : null; // hand created by the first split
     }
-    public String getStatus(String handType) {
-        if ("main".equals(handType)) {
-            return this.status; // return the status of main hand
-        } else if ("split".equals(handType)) {
-            return this.splitStatus; // return the status of split hand
-        }
-        return ""; // empty string if handType is not recognized
+    public Hand getHand(int index) {
+        return hands[index];
     }
-
-
-    public boolean canSplitHand() {
-        // check if the hand has exactly two cards of  same rank: REVIION HAS TO COMPARE VALS ONLY
-        //return hand.size() == 2 && hand.get(0).getRank() == hand.get(1).getRank();
-        return hand.size() == 2 && hand.get(0).getValue() == hand.get(1).getValue();
-
+    public int getHandCount() {
+        return handCount;
     }
-
-    public void split() {
-        if (canSplitHand()) {
-            splitHand.add(hand.remove(1)); // move the second card to split hand
-            hasSplit = true; // indicate hand has been split
-        }
+    public Hand getCurrentHand() {
+        return hands[currentHand];
     }
-
-    public boolean hasSplitHand() {
-        return hasSplit;
+    public int getCurrentHandIndex() {
+        return currentHand;
     }
 
-    public void addCard(Card card, boolean toSplitHand) {
-        if (toSplitHand && hasSplit) {
-            splitHand.add(card);
-        } else {
-            hand.add(card);
+    /**
+     * Moves on to the next hand, returning false if this was the last one.
+     */
+    public boolean nextHand() {
+        if (currentHand + 1 < handCount) {
+            currentHand++;
+            return true;
         }
+        return false;
     }
 
-    public int calculateHandValue(List<Card> handToEvaluate) {
-        int value = 0;
-        int acesCount = 0;
+    public boolean canSplitHand() {
+        return getCurrentHand().canSplit();
+    }
 
-        for (Card card : handToEvaluate) {
-            int cardValue = card.getValue();
-            if (card.getRank() == Card.Rank.ACE) {
-                acesCount++;
-                cardValue = 11; // initially treat Ace as 11
-            }
-            value += cardValue;
+    /**
+     * Splits the current hand, moving its second card into a new hand after
+     * the existing ones, and returns the new hand (or null if not splittable).
+     */
+    public Hand split() {
+        if (!canSplitHand()) {
+            return null;
         }
-
-        // Adjust aces if value goes over 21
-        while (value > 21 && acesCount > 0) {
-            value -= 10; // Convert
-            acesCount--;
+        if (handCount == hands.length) {
+            hands = Arrays.copyOf(hands, handCount * 2);
         }
-
-        return value;
-    }
-    public boolean hasBlackjack(List<Card> handToEvaluate) {
-        if (handToEvaluate.size() == 2) { // blackjack only possible with two cards
-            return calculateHandValue(handToEvaluate) == 21;
+        if (hands[handCount] == null) {
+            hands[handCount] = new Hand();
         }
-        return false;
-    }
-    public boolean hasBlackjackMainHand() {
-        return hasBlackjack(this.hand);
-    }
-
-    public boolean hasBlackjackSplitHand() {
-        if (hasSplit) {
-            return hasBlackjack(this.splitHand);
+        Hand splitHand = hands[handCount++];
+        getCurrentHand().splitInto(splitHand);
+        return splitHand;
+    }
+
+    /**
+     * Clears the player down to the given number of empty hands, with the
+     * given one current, for a {@link Snapshot} to fill in.
+     */
+    void restore(int handCount, int currentHand) {
+        reset();
+        if (hands.length < handCount) {
+            hands = Arrays.copyOf(hands, handCount);
         }
-        return false;
+        for (int i = 0; i < handCount; i++) {
+            if (hands[i] == null) {
+                hands[i] = new Hand();
+            } else {
+                hands[i].clear();
+            }
+        }
+        this.handCount = handCount;
+        this.currentHand = currentHand;
     }
 
+    public boolean hasSplitHand() {
+        return handCount > 1;
+    }
 
-    public void setStatus(String statusToEvaluate, String newStatus) {
-        if ("main".equals(statusToEvaluate)) {
-            this.status = newStatus; // set the status for main hand
-        } else if ("split".equals(statusToEvaluate) && hasSplit) {
-            this.splitStatus = newStatus; // set the status for the split hand, if exists
-        }
+    /**
+     * Whether the player was dealt a blackjack and didn't split, which pays
+     * 3:2 if it wins.
+     */
+    public boolean hasNatural() {
+        return handCount == 1 && hands[0].isBlackjack();
     }
 
     public String inspectHand() {
         StringBuilder sb = new StringBuilder();
+        inspectHand(sb);
+        return sb.toString();
+    }
 
-        // inspect the main hand
-        sb.append("Player (")
-                .append(calculateHandValue(hand))
-                .append("): ")
-                .append(hand.stream().map(Card::toString).collect(Collectors.joining(", ")))
-                .append(" (")
-                .append(status)
-                .append(")");
-
-        // if there's a split hand, inspect it in new line
-        if (hasSplit) {
-            sb.append("\nPlayer (")
-                    .append(calculateHandValue(splitHand))
-                    .append("): ")
-                    .append(splitHand.stream().map(Card::toString).collect(Collectors.joining(", ")))
-                    .append(" (")
-                    .append(splitStatus)
+    /**
+     * Appends the same text as {@link #inspectHand()} to the given builder.
+     */
+    public void inspectHand(StringBuilder sb) {
+        // inspect each hand on its own line
+        for (int i = 0; i < handCount; i++) {
+            Hand hand = hands[i];
+            if (i > 0) {
+                sb.append("\n");
+            }
+            sb.append("Player (")
+                    .append(hand.getValue())
+                    .append("): ");
+            hand.appendCards(sb);
+            sb.append(" (")
+                    .append(hand.getStatus())
                     .append(")");
         }
-
-        return sb.toString();
     }
 
 
@@ -0,0 +1,64 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records a session as the seed of its {@link Commands} plus each command and
+ * its output. Since every shuffle comes from the seed, {@link #verify} can
+ * reproduce the session by running the commands again against a fresh
+ * Commands, without ever storing the deck.
+ */
+public final class Replay {
+
+    public record Step(String command, String output) {}
+
+    private final Commands commands;
+    private final List<Step> steps = new ArrayList<>();
+
+    public Replay() {
+        this(new Commands());
+    }
+
+    public Replay(long seed) {
+        this(new Commands(seed));
+    }
+
+    private Replay(Commands commands) {
+        this.commands = commands;
+    }
+
+    public String execute(String command) throws ParseException {
+        var output = commands.execute(Lisp.parse(command));
+        steps.add(new Step(command, output));
+        return output;
+    }
+
+    public long getSeed() {
+        return commands.getSeed();
+    }
+
+    public List<Step> getSteps() {
+        return List.copyOf(steps);
+    }
+
+    /**
+     * Replays the steps from the seed, returning null if every output is the
+     * same or a message describing the first one that isn't.
+     */
+    public static String verify(long seed, List<Step> steps) throws ParseException {
+        var commands = new Commands(seed);
+        for (int i = 0; i < steps.size(); i++) {
+            var step = steps.get(i);
+            var output = commands.execute(Lisp.parse(step.command()));
+            if (!output.equals(step.output())) {
+                return "Step " + (i + 1) + " " + step.command() + " expected:\n" + step.output() + "\nbut was:\n" + output;
+            }
+        }
+        return null;
+    }
+
+}
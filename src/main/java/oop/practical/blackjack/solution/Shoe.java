@@ -0,0 +1,99 @@
+package oop.practical.blackjack.solution;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A shoe of several decks with a cut card. Once the cut card has been reached
+ * the whole shoe is reshuffled before the next round, reusing the same card
+ * array, so a shoe never allocates after construction. Once it is cleared or
+ * given cards it holds them like any other deck and never reshuffles.
+ */
+public class Shoe extends Deck {
+    public static final double DEFAULT_PENETRATION = 0.75;
+
+    private final int cutCard; // number of cards dealt before the cut card comes out
+    private int dealt;
+
+    public Shoe(int decks) {
+        this(decks, DEFAULT_PENETRATION, new SplittableRandom());
+    }
+
+    public Shoe(int decks, double penetration, RandomGenerator random) {
+        this(random, checkDecks(decks), cutCard(decks, penetration));
+    }
+
+    private Shoe(RandomGenerator random, int decks, int cutCard) {
+        super(decks, random);
+        this.cutCard = cutCard;
+    }
+
+    /**
+     * Creates a shoe as saved in a {@link Snapshot}, with the given cards
+     * left to deal in order.
+     */
+    static Shoe restore(int decks, int cutCard, int dealt, byte[] queue, RandomGenerator random) {
+        if (cutCard < 0 || cutCard > checkDecks(decks) * Card.COUNT || dealt < 0 || queue.length > decks * Card.COUNT) {
+            throw new IllegalArgumentException("invalid shoe: " + decks + " decks, cut card " + cutCard + ", " + dealt + " dealt, " + queue.length + " left");
+        }
+        var shoe = new Shoe(random, decks, cutCard);
+        shoe.restoreQueue(queue, queue.length);
+        shoe.dealt = dealt;
+        return shoe;
+    }
+
+    private static int checkDecks(int decks) {
+        if (decks < 1) {
+            throw new IllegalArgumentException("invalid number of decks: " + decks);
+        }
+        return decks;
+    }
+
+    private static int cutCard(int decks, double penetration) {
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("invalid penetration: " + penetration);
+        }
+        return (int) (decks * Card.COUNT * penetration);
+    }
+
+    int getCutCard() {
+        return cutCard;
+    }
+
+    int getDealt() {
+        return dealt;
+    }
+
+    public boolean isCutCardReached() {
+        return dealt >= cutCard;
+    }
+
+    /**
+     * Returns every dealt card to the shoe and shuffles it.
+     */
+    @Override
+    public void reshuffle() {
+        if (Metrics.ENABLED) {
+            Metrics.count(Metrics.Counter.RESHUFFLES);
+        }
+        collect();
+        dealt = 0;
+        shuffle();
+    }
+
+    @Override
+    public void beginRound() {
+        if (isCutCardReached() && isComplete()) {
+            reshuffle();
+        }
+    }
+
+    @Override
+    public int deal() {
+        int card = super.deal();
+        if (card != -1) {
+            dealt++;
+        }
+        return card;
+    }
+}
@@ -0,0 +1,132 @@
+package oop.practical.blackjack.solution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays rounds headlessly through {@link Game}, so results follow exactly the
+ * same rules as {@link Commands} without parsing or rendering anything. The
+ * game and its hands are reused across rounds, so a run doesn't allocate.
+ */
+public final class Simulator {
+    private final Game game = new Game();
+    private final Strategy strategy;
+    private final int roundCards; // no round can use more cards than this
+
+    public Simulator(Deck deck, Strategy strategy) {
+        game.setDeck(deck);
+        this.strategy = strategy;
+        this.roundCards = roundCards(deck.getDecks());
+    }
+
+    /**
+     * Returns the most cards a round can use from the given number of decks.
+     * A player's hand only takes another card while its hard total is at most
+     * 20, and the dealer's while it's at most 16. So apart from the last card
+     * of each of the three hands (two after a split, and the dealer's), the
+     * cards add up to at most 56. Taking the lowest cards of the decks first
+     * gives the most cards that can add up to that.
+     */
+    static int roundCards(int decks) {
+        int total = 0;
+        int cards = 0;
+        for (int value = 1; ; value++) {
+            for (int i = 0; i < (value == 10 ? 16 : 4) * decks; i++) {
+                total += value;
+                if (total > 20 + 20 + 16) {
+                    return cards + 3;
+                }
+                cards++;
+            }
+        }
+    }
+
+    /**
+     * Splits the rounds across the given number of workers, run as fork-join
+     * tasks, and merges their statistics. Each worker has its own deck, made
+     * from a stream split off the seed, and a game of its own; the strategy
+     * is shared, so it must be stateless. Results only depend on the seed
+     * and the worker count, not on scheduling.
+     */
+    public static Statistics run(long rounds, int workers, long seed, Function<RandomGenerator, Deck> deck, Strategy strategy) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive: " + workers);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ForkJoinTask<Statistics>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Simulator simulator = new Simulator(deck.apply(random.split()), strategy);
+            long share = rounds / workers + (i < rounds % workers ? 1 : 0);
+            tasks.add(ForkJoinTask.adapt(() -> simulator.run(share)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // merged in worker order, so the floating point totals are reproducible
+        Statistics statistics = Statistics.EMPTY;
+        for (ForkJoinTask<Statistics> task : tasks) {
+            statistics = statistics.merge(task.join());
+        }
+        return statistics;
+    }
+
+    /**
+     * Plays the given number of rounds. Wins pay 1 (3:2 for a blackjack on
+     * the deal) and doubled hands count twice. Throws IllegalStateException
+     * if the strategy picks an action the rules don't allow.
+     */
+    public Statistics run(long rounds) {
+        Deck deck = game.getDeck();
+        long hands = 0;
+        long wins = 0;
+        long losses = 0;
+        long pushes = 0;
+        double total = 0;
+        double sumSquares = 0;
+
+        for (long round = 0; round < rounds; round++) {
+            deck.beginRound();
+            if (deck.getSize() < roundCards) {
+                deck.reshuffle();
+            }
+            String error = game.deal();
+            if (error != null) {
+                throw new IllegalStateException(error);
+            }
+            Player player = game.getPlayer();
+
+            Hand hand;
+            while ((hand = game.getCurrentHand()) != null) {
+                Strategy.Action action = strategy.decide(game, hand);
+                error = switch (action) {
+                    case HIT -> game.hit();
+                    case STAND -> game.stand();
+                    case DOUBLE_DOWN -> game.doubleDown();
+                    case SPLIT -> game.canSplit() ? game.split() : "Cannot split hand.";
+                };
+                if (error != null) {
+                    throw new IllegalStateException(action + ": " + error);
+                }
+            }
+
+            double net = 0;
+            for (int i = 0; i < player.getHandCount(); i++) {
+                hand = player.getHand(i);
+                net += hand.getNet(player.hasNatural());
+                switch (hand.getStatus()) {
+                    case WON -> wins++;
+                    case TIED -> pushes++;
+                    default -> losses++;
+                }
+            }
+            hands += player.getHandCount();
+            total += net;
+            sumSquares += net * net;
+        }
+        return new Statistics(rounds, hands, wins, losses, pushes, total, sumSquares);
+    }
+
+}
@@ -0,0 +1,205 @@
+package oop.practical.blackjack.solution;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.random.RandomGenerator;
+
+/**
+ * The binary format of {@link Commands#snapshot()}: the deck in dealing
+ * order, every hand with its status, the dealer's hand and statuses, and the
+ * last error. Mid-round on a single deck this comes to under 70 bytes, most
+ * of them the cards left in the deck. Everything is big-endian:
+ * <pre>
+ * byte   version
+ * int    length of the last error, then its UTF-8 bytes
+ * byte   flags (DECK, SHOE, DEALT, DEALER_PLAYED)
+ * if SHOE:  int decks, int cut card, int cards dealt since the shuffle
+ * if DECK:  int size, then a byte ordinal per card in dealing order
+ * if DEALT: byte hand count, byte current hand, then per hand a byte
+ *           status (with the doubled flag in the top bit), byte size and
+ *           ordinals; then the dealer's status, split status (-1 if none),
+ *           byte size and ordinals
+ * </pre>
+ * A random generator's state can't be read back, so it isn't saved: a
+ * restored deck shuffles from the generator it's restored with.
+ */
+final class Snapshot {
+
+    static final byte VERSION = 1;
+
+    private static final int DECK = 1;
+    private static final int SHOE = 2;
+    private static final int DEALT = 4;
+    private static final int DEALER_PLAYED = 8;
+    private static final int DOUBLED = 0x80;
+
+    private static final Hand.Status[] STATUSES = Hand.Status.values();
+
+    private Snapshot() {}
+
+    static int size(Game game, String lastError) {
+        int size = 1 + 4 + lastError.getBytes(StandardCharsets.UTF_8).length + 1;
+        Deck deck = game.getDeck();
+        if (deck != null) {
+            size += (shoe(deck) != null ? 12 : 0) + 4 + deck.getSize();
+        }
+        Player player = game.getPlayer();
+        if (player != null) {
+            size += 2;
+            for (int i = 0; i < player.getHandCount(); i++) {
+                size += 2 + player.getHand(i).size();
+            }
+            size += 3 + game.getDealer().getHand().size();
+        }
+        return size;
+    }
+
+    static void write(Game game, String lastError, ByteBuffer out) {
+        out.put(VERSION);
+        byte[] error = lastError.getBytes(StandardCharsets.UTF_8);
+        out.putInt(error.length).put(error);
+
+        Deck deck = game.getDeck();
+        Player player = game.getPlayer();
+        Shoe shoe = shoe(deck);
+        int flags = (deck != null ? DECK : 0)
+            | (shoe != null ? SHOE : 0)
+            | (player != null ? DEALT : 0)
+            | (game.hasDealerPlayed() ? DEALER_PLAYED : 0);
+        out.put((byte) flags);
+        if (shoe != null) {
+            out.putInt(shoe.getDecks()).putInt(shoe.getCutCard()).putInt(shoe.getDealt());
+        }
+        if (deck != null) {
+            out.putInt(deck.getSize());
+            deck.writeQueue(out);
+        }
+        if (player != null) {
+            out.put((byte) player.getHandCount()).put((byte) player.getCurrentHandIndex());
+            for (int i = 0; i < player.getHandCount(); i++) {
+                Hand hand = player.getHand(i);
+                out.put((byte) (hand.getStatus().ordinal() | (hand.isDoubled() ? DOUBLED : 0)));
+                writeCards(hand, out);
+            }
+            Dealer dealer = game.getDealer();
+            out.put((byte) dealer.getStatus().ordinal());
+            out.put((byte) (dealer.getStatusSplit() != null ? dealer.getStatusSplit().ordinal() : -1));
+            writeCards(dealer.getHand(), out);
+        }
+    }
+
+    /**
+     * Returns the deck as a shoe to save with its header, or null if it's a
+     * plain deck or a shoe holding custom cards, which is saved as a deck.
+     */
+    private static Shoe shoe(Deck deck) {
+        return deck instanceof Shoe shoe && shoe.isComplete() ? shoe : null;
+    }
+
+    private static void writeCards(Hand hand, ByteBuffer out) {
+        out.put((byte) hand.size());
+        for (int i = 0; i < hand.size(); i++) {
+            out.put((byte) hand.getCard(i));
+        }
+    }
+
+    /**
+     * Reads a snapshot into the game, giving any deck the given generator,
+     * and returns the last error. The game is only changed if the whole
+     * snapshot is valid.
+     */
+    static String read(ByteBuffer in, Game game, RandomGenerator random) {
+        try {
+            int version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+            }
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                throw new IllegalArgumentException("Invalid snapshot: error of " + length + " bytes");
+            }
+            byte[] error = new byte[length];
+            in.get(error);
+
+            int flags = in.get();
+            Deck deck = null;
+            if ((flags & SHOE) != 0) {
+                int decks = in.getInt();
+                int cutCard = in.getInt();
+                int dealt = in.getInt();
+                byte[] queue = readQueue(in);
+                deck = Shoe.restore(decks, cutCard, dealt, queue, random);
+            } else if ((flags & DECK) != 0) {
+                deck = new Deck(random);
+                deck.clear();
+                for (byte card : readQueue(in)) {
+                    deck.addCard(card);
+                }
+            }
+
+            Player player = null;
+            Dealer dealer = null;
+            if ((flags & DEALT) != 0) {
+                int hands = in.get();
+                int current = in.get();
+                if (hands < 1 || current < 0 || current >= hands) {
+                    throw new IllegalArgumentException("Invalid snapshot: hand " + current + " of " + hands);
+                }
+                player = new Player();
+                player.restore(hands, current);
+                for (int i = 0; i < hands; i++) {
+                    int status = in.get() & 0xFF;
+                    Hand hand = player.getHand(i);
+                    readCards(in, hand);
+                    hand.restore(status(status & ~DOUBLED), (status & DOUBLED) != 0);
+                }
+                dealer = new Dealer();
+                dealer.setStatus(status(in.get()));
+                int split = in.get();
+                dealer.setStatusSplit(split == -1 ? null : status(split));
+                readCards(in, dealer.getHand());
+            }
+
+            game.restore(deck, player, dealer, (flags & DEALER_PLAYED) != 0);
+            return new String(error, StandardCharsets.UTF_8);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid snapshot: truncated.", e);
+        }
+    }
+
+    private static byte[] readQueue(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0 || size > in.remaining()) {
+            throw new IllegalArgumentException("Invalid snapshot: " + size + " cards in the deck");
+        }
+        byte[] queue = new byte[size];
+        in.get(queue);
+        for (byte card : queue) {
+            card(card);
+        }
+        return queue;
+    }
+
+    private static void readCards(ByteBuffer in, Hand hand) {
+        int size = in.get() & 0xFF;
+        for (int i = 0; i < size; i++) {
+            hand.addCard(card(in.get()));
+        }
+    }
+
+    private static int card(int ordinal) {
+        if (ordinal < 0 || ordinal >= Card.COUNT) {
+            throw new IllegalArgumentException("Invalid snapshot: card " + ordinal);
+        }
+        return ordinal;
+    }
+
+    private static Hand.Status status(int ordinal) {
+        if (ordinal < 0 || ordinal >= STATUSES.length) {
+            throw new IllegalArgumentException("Invalid snapshot: status " + ordinal);
+        }
+        return STATUSES[ordinal];
+    }
+
+}
@@ -0,0 +1,41 @@
+package oop.practical.blackjack.solution;
+
+/**
+ * The results of a {@link Simulator} run. Totals are in units of the initial
+ * bet per round, and {@link #merge} combines runs so they can be split up.
+ */
+public record Statistics(long rounds, long hands, long wins, long losses, long pushes, double total, double sumSquares) {
+
+    public static final Statistics EMPTY = new Statistics(0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * The average net result per round.
+     */
+    public double expectedValue() {
+        return rounds == 0 ? 0 : total / rounds;
+    }
+
+    /**
+     * The variance of the net result per round.
+     */
+    public double variance() {
+        if (rounds == 0) {
+            return 0;
+        }
+        double mean = expectedValue();
+        return sumSquares / rounds - mean * mean;
+    }
+
+    public Statistics merge(Statistics other) {
+        return new Statistics(
+            rounds + other.rounds,
+            hands + other.hands,
+            wins + other.wins,
+            losses + other.losses,
+            pushes + other.pushes,
+            total + other.total,
+            sumSquares + other.sumSquares
+        );
+    }
+
+}
@@ -0,0 +1,24 @@
+package oop.practical.blackjack.solution;
+
+/**
+ * Decides the player's action for the {@link Simulator}.
+ */
+@FunctionalInterface
+public interface Strategy {
+
+    enum Action {
+        HIT, STAND, DOUBLE_DOWN, SPLIT
+    }
+
+    /**
+     * Hits below 17 and stands otherwise, the same rule the dealer plays by.
+     */
+    Strategy MIMIC_DEALER = (game, hand) -> hand.getValue() < 17 ? Action.HIT : Action.STAND;
+
+    /**
+     * Returns the action for the given hand, which is the game's current
+     * hand. SPLIT may only be returned when {@link Game#canSplit()}.
+     */
+    Action decide(Game game, Hand hand);
+
+}
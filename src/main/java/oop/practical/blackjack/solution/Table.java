@@ -0,0 +1,376 @@
+package oop.practical.blackjack.solution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A table where several seats play against one dealer and one shoe, safe to
+ * use from many threads at once. A finished hand is decided against the
+ * dealer's with the same comparison as in {@link Game}
+ * ({@link Hand#against(Hand)}), but the rules around it are a real table's
+ * rather than the command language's:
+ * <ul>
+ * <li>The dealer plays once, after every seat has finished. Game's dealer
+ * draws as the player hits.
+ * <li>A hand that reaches 21, including a two-card 21 after a split, waits
+ * for the dealer like any other. Game counts it as won at once.
+ * <li>Only a natural on the hand as dealt pays 3:2, and a dealer blackjack
+ * beats every other hand.
+ * </ul>
+ *
+ * <p>Each seat has its own lock, so seats act in parallel and only contend
+ * on the shoe for the moment it takes to deal a card. State shared by the
+ * whole table (the dealer's hand and whether a round is on) is only written
+ * while holding every seat's lock, in seat order, so holding any one of them
+ * is enough to read it. Locks are always taken seat first, then the shoe.
+ *
+ * <p>Actions return null on success or a message describing why they
+ * weren't allowed, like {@link Game}.
+ */
+public final class Table {
+
+    private static final class Seat {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Player player = new Player();
+        private boolean playing; // still has a hand to act on this round
+        private long rounds;
+        private long hands;
+        private long wins;
+        private long losses;
+        private long pushes;
+        private double total;
+        private double sumSquares;
+    }
+
+    private final Seat[] seats;
+    private final Deck shoe;
+    private final ReentrantLock shoeLock = new ReentrantLock();
+    private final Hand dealer = new Hand();
+    private final AtomicInteger playing = new AtomicInteger(); // seats yet to finish this round
+    private boolean inRound;
+
+    public Table(int seats, Deck shoe) {
+        if (seats < 1) {
+            throw new IllegalArgumentException("A table needs at least one seat: " + seats);
+        }
+        this.seats = new Seat[seats];
+        for (int i = 0; i < seats; i++) {
+            this.seats[i] = new Seat();
+        }
+        this.shoe = shoe;
+    }
+
+    public int getSeats() {
+        return seats.length;
+    }
+
+    private void lockAll() {
+        for (Seat seat : seats) {
+            seat.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = seats.length - 1; i >= 0; i--) {
+            seats[i].lock.unlock();
+        }
+    }
+
+    /**
+     * Deals the next card as an ordinal, or -1 if the shoe is empty.
+     */
+    private int draw() {
+        shoeLock.lock();
+        try {
+            return shoe.deal();
+        } finally {
+            shoeLock.unlock();
+        }
+    }
+
+    /**
+     * Deals a new round to every seat once the last one has been settled.
+     */
+    public String deal() {
+        lockAll();
+        try {
+            if (inRound) {
+                return "The round is still in play.";
+            }
+            shoeLock.lock();
+            try {
+                shoe.beginRound();
+                if (shoe.getSize() < 2 * (seats.length + 1)) {
+                    return "Not enough cards to deal.";
+                }
+            } finally {
+                shoeLock.unlock();
+            }
+
+            dealer.clear();
+            for (Seat seat : seats) {
+                seat.player.reset();
+            }
+            for (int round = 0; round < 2; round++) {
+                for (Seat seat : seats) {
+                    seat.player.getMainHand().addCard(draw());
+                }
+                dealer.addCard(draw());
+            }
+
+            int remaining = 0;
+            for (Seat seat : seats) {
+                if (Metrics.ENABLED) {
+                    Metrics.count(Metrics.Counter.HANDS_DEALT);
+                }
+                Hand hand = seat.player.getMainHand();
+                hand.setStatus(Hand.Status.PLAYING);
+                seat.playing = !dealer.isBlackjack() && !hand.isBlackjack();
+                if (hand.isBlackjack()) {
+                    hand.setStatus(Hand.Status.RESOLVED);
+                }
+                if (seat.playing) {
+                    remaining++;
+                }
+            }
+            inRound = true;
+            playing.set(remaining);
+            if (remaining == 0) {
+                settleLocked();
+            }
+            return null;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public String hit(int index) {
+        return act(index, Strategy.Action.HIT);
+    }
+
+    public String stand(int index) {
+        return act(index, Strategy.Action.STAND);
+    }
+
+    public String doubleDown(int index) {
+        return act(index, Strategy.Action.DOUBLE_DOWN);
+    }
+
+    public String split(int index) {
+        return act(index, Strategy.Action.SPLIT);
+    }
+
+    private String act(int index, Strategy.Action action) {
+        Seat seat = seats[index];
+        boolean last;
+        seat.lock.lock();
+        try {
+            if (!inRound || !seat.playing) {
+                return "The hand is not in play.";
+            }
+            Player player = seat.player;
+            Hand hand = player.getCurrentHand();
+            switch (action) {
+                case HIT -> {
+                    int card = draw();
+                    if (card == -1) {
+                        return "The deck is empty, cannot hit.";
+                    }
+                    hand.addCard(card);
+                    if (hand.isBusted()) {
+                        if (Metrics.ENABLED) {
+                            Metrics.count(Metrics.Counter.BUSTS);
+                        }
+                        hand.setStatus(Hand.Status.BUSTED);
+                    } else if (hand.getValue() == 21) {
+                        hand.setStatus(Hand.Status.RESOLVED);
+                    }
+                }
+                case STAND -> hand.setStatus(Hand.Status.RESOLVED);
+                case DOUBLE_DOWN -> {
+                    if (hand.size() != 2) {
+                        return "Double down is only allowed on the initial hand of two cards.";
+                    }
+                    int card = draw();
+                    if (card == -1) {
+                        return "The deck is empty, cannot double down.";
+                    }
+                    hand.addCard(card);
+                    hand.setDoubled();
+                    if (Metrics.ENABLED) {
+                        Metrics.count(Metrics.Counter.DOUBLES);
+                        if (hand.isBusted()) {
+                            Metrics.count(Metrics.Counter.BUSTS);
+                        }
+                    }
+                    hand.setStatus(hand.isBusted() ? Hand.Status.BUSTED : Hand.Status.RESOLVED);
+                }
+                case SPLIT -> {
+                    if (player.hasSplitHand() || !hand.canSplit()) {
+                        return "Cannot split hand.";
+                    }
+                    int first;
+                    int second;
+                    shoeLock.lock();
+                    try {
+                        if (shoe.getSize() < 2) {
+                            return "The deck is empty, cannot split.";
+                        }
+                        first = shoe.deal();
+                        second = shoe.deal();
+                    } finally {
+                        shoeLock.unlock();
+                    }
+                    Hand splitHand = player.split();
+                    if (Metrics.ENABLED) {
+                        Metrics.count(Metrics.Counter.SPLITS);
+                    }
+                    hand.addCard(first);
+                    splitHand.addCard(second);
+                }
+            }
+
+            // move on to the next hand once this one is done with
+            while (player.getCurrentHand().getStatus() != Hand.Status.PLAYING) {
+                if (!player.nextHand()) {
+                    break;
+                }
+                player.getCurrentHand().setStatus(Hand.Status.PLAYING);
+            }
+            Hand.Status status = player.getCurrentHand().getStatus();
+            if (status == Hand.Status.PLAYING) {
+                return null;
+            }
+            seat.playing = false;
+            last = playing.decrementAndGet() == 0;
+        } finally {
+            seat.lock.unlock();
+        }
+        if (last) {
+            settle();
+        }
+        return null;
+    }
+
+    private void settle() {
+        lockAll();
+        try {
+            settleLocked();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Plays the dealer's hand and decides every seat's hands. Only called
+     * while holding every seat's lock.
+     */
+    private void settleLocked() {
+        // the dealer only draws if some hand is still waiting on them
+        boolean needed = false;
+        for (Seat seat : seats) {
+            for (int i = 0; i < seat.player.getHandCount(); i++) {
+                needed |= seat.player.getHand(i).getStatus() == Hand.Status.RESOLVED && !isNatural(seat.player, i);
+            }
+        }
+        while (needed && !dealer.isBlackjack() && dealer.getValue() < 17) {
+            int card = draw();
+            if (card == -1) {
+                break; // the dealer stands on what they have
+            }
+            dealer.addCard(card);
+        }
+        for (Seat seat : seats) {
+            double net = 0;
+            for (int i = 0; i < seat.player.getHandCount(); i++) {
+                Hand hand = seat.player.getHand(i);
+                boolean natural = isNatural(seat.player, i);
+                Hand.Status status = outcome(hand, natural);
+                if (hand.getStatus() != Hand.Status.BUSTED) {
+                    hand.setStatus(status);
+                }
+                net += hand.getNet(natural);
+                switch (status) {
+                    case WON -> seat.wins++;
+                    case TIED -> seat.pushes++;
+                    default -> seat.losses++;
+                }
+            }
+            seat.rounds++;
+            seat.hands += seat.player.getHandCount();
+            seat.total += net;
+            seat.sumSquares += net * net;
+        }
+        inRound = false;
+    }
+
+    private static boolean isNatural(Player player, int index) {
+        return index == 0 && player.hasNatural();
+    }
+
+    private Hand.Status outcome(Hand hand, boolean natural) {
+        if (!hand.isBusted() && (dealer.isBlackjack() || natural)) {
+            return dealer.isBlackjack() == natural ? Hand.Status.TIED : natural ? Hand.Status.WON : Hand.Status.LOST;
+        }
+        return hand.against(dealer);
+    }
+
+    public boolean isInRound() {
+        seats[0].lock.lock();
+        try {
+            return inRound;
+        } finally {
+            seats[0].lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the value of the hand the seat is acting on, or -1 if the seat
+     * has nothing left to do this round.
+     */
+    public int getValue(int index) {
+        Seat seat = seats[index];
+        seat.lock.lock();
+        try {
+            return inRound && seat.playing ? seat.player.getCurrentHand().getValue() : -1;
+        } finally {
+            seat.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the results of every round the seat has played, in the same
+     * units as a {@link Simulator} run.
+     */
+    public Statistics getStatistics(int index) {
+        Seat seat = seats[index];
+        seat.lock.lock();
+        try {
+            return new Statistics(seat.rounds, seat.hands, seat.wins, seat.losses, seat.pushes, seat.total, seat.sumSquares);
+        } finally {
+            seat.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the seat's hands and the dealer's, with the hole card hidden
+     * while the round is in play.
+     */
+    public String inspect(int index) {
+        Seat seat = seats[index];
+        seat.lock.lock();
+        try {
+            StringBuilder sb = new StringBuilder(seat.player.inspectHand()).append("\nDealer (");
+            if (inRound) {
+                sb.append("? + ").append(Card.value(dealer.getCard(1))).append("): ?, ").append(Card.glyph(dealer.getCard(1)));
+            } else {
+                sb.append(dealer.getValue()).append("): ");
+                dealer.appendCards(sb);
+            }
+            return sb.toString();
+        } finally {
+            seat.lock.unlock();
+        }
+    }
+
+}
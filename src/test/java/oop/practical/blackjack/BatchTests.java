@@ -0,0 +1,87 @@
+package oop.practical.blackjack;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.solution.Commands;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+public final class BatchTests {
+
+    @Test
+    public void testRun() throws IOException {
+        var input = String.join("\n",
+            "(deck :2S :10H :AC :7D)",
+            "(deal)",
+            ")",
+            "(inspect :player)",
+            "exit",
+            "(inspect :deck)"
+        );
+        var output = new StringWriter();
+        Assertions.assertEquals(4, Batch.run(new BufferedReader(new StringReader(input)), new Commands(1), output));
+        var lines = output.toString().split("\n", -1);
+        Assertions.assertEquals(5, lines.length, output.toString());
+        Assertions.assertEquals("Deck set with provided cards.", lines[0]);
+        Assertions.assertEquals("Cards dealt successfully.", lines[1]);
+        Assertions.assertTrue(lines[2].startsWith("Error parsing input: "), lines[2]);
+        Assertions.assertEquals("Player (13): 2S, AC (playing)", lines[3]);
+        Assertions.assertEquals("", lines[4]);
+    }
+
+    @Test
+    public void testSequential() throws Exception {
+        //Note: Long enough for the parser to fill the queue several times
+        //over, and must match executing each line in turn.
+        var commands = new String[] {"(deal)", "(hit)", "(stand)", "(split)", "(double-down)", "(inspect :player)", "(inspect :dealer)", "(deck :shoe 2)"};
+        var random = new SplittableRandom(1);
+        var input = new StringBuilder();
+        for (var i = 0; i < 100_000; i++) {
+            input.append(commands[random.nextInt(commands.length)]).append('\n');
+        }
+        var expected = new StringBuilder();
+        var sequential = new Commands(1);
+        for (var line : input.toString().split("\n")) {
+            expected.append(sequential.execute(Lisp.parse(line))).append('\n');
+        }
+        var output = new StringWriter();
+        Assertions.assertEquals(100_000, Batch.run(new BufferedReader(new StringReader(input.toString())), new Commands(1), output));
+        Assertions.assertEquals(expected.toString(), output.toString());
+    }
+
+    @Test
+    public void testDeepNesting() throws IOException {
+        //Note: Deep enough to overflow the parser's stack, which must be
+        //reported for that line rather than stop the parser thread.
+        var depth = 100_000;
+        var input = "(do ".repeat(depth) + "(inspect :deck)" + ")".repeat(depth) + "\n(deck :2S)";
+        var output = new StringWriter();
+        Assertions.assertEquals(2, Batch.run(new BufferedReader(new StringReader(input)), new Commands(1), output));
+        var lines = output.toString().split("\n", -1);
+        Assertions.assertEquals(3, lines.length, output.toString());
+        Assertions.assertEquals("Error parsing input: Too deeply nested.", lines[0]);
+        Assertions.assertEquals("Deck set with provided cards.", lines[1]);
+    }
+
+    @Test
+    public void testReadFailure() {
+        var input = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Disk on fire.");
+            }
+
+            @Override
+            public void close() {}
+        };
+        var e = Assertions.assertThrows(IOException.class, () -> Batch.run(new BufferedReader(input), new Commands(1), new StringWriter()));
+        Assertions.assertEquals("Disk on fire.", e.getMessage());
+    }
+
+}
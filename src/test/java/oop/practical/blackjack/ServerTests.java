@@ -0,0 +1,125 @@
+package oop.practical.blackjack;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class ServerTests {
+
+    @Test
+    public void testLoad() throws Exception {
+        //Note: Every client holds its session open until all of them are
+        //connected, so they really are served concurrently. Both ends of
+        //every connection live in this JVM, so this stays within the usual
+        //open file limits; the server itself has no such limit.
+        var clients = 4000;
+        try (var server = new Server(0, clients, Duration.ofMinutes(1));
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var connected = new CountDownLatch(clients);
+            var futures = new ArrayList<Future<String>>();
+            for (var i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    try (var client = new Client(server)) {
+                        var dealt = client.send("(deal :2S :10H :AC :7D)");
+                        connected.countDown();
+                        connected.await();
+                        return dealt + "|" + client.send("(inspect :player)");
+                    }
+                }));
+            }
+            for (var future : futures) {
+                Assertions.assertEquals("Cards dealt successfully.|Player (13): 2S, AC (playing)", future.get());
+            }
+        }
+    }
+
+    @Test
+    public void testIsolated() throws Exception {
+        try (var server = new Server(0, 10, Duration.ofMinutes(1));
+             var first = new Client(server);
+             var second = new Client(server)) {
+            Assertions.assertEquals("Deck set with provided cards.", first.send("(deck :2S)"));
+            Assertions.assertEquals("Deck: (empty)", second.send("(inspect :deck)"));
+            Assertions.assertEquals("", second.send("(deal)"));
+            Assertions.assertTrue(second.send(")").startsWith("Error parsing input: "));
+            Assertions.assertEquals("Error: Unknown command: foo.", second.send("(foo)"));
+            Assertions.assertEquals("Deck: 2S", first.send("(inspect :deck)"));
+        }
+    }
+
+    @Test
+    public void testIdle() throws Exception {
+        try (var server = new Server(0, 10, Duration.ofMillis(200));
+             var client = new Client(server)) {
+            Assertions.assertEquals("Session closed: idle.", client.receive());
+            Assertions.assertNull(client.reader.readLine());
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        try (var server = new Server(0, 1, Duration.ofMinutes(1));
+             var first = new Client(server);
+             var second = new Client(server)) {
+            Assertions.assertEquals("Deck: (empty)", first.send("(inspect :deck)"));
+            //Note: The second connection waits in the backlog while the
+            //first session is open.
+            second.socket.setSoTimeout(300);
+            second.writer.println("(inspect :deck)");
+            Assertions.assertThrows(SocketTimeoutException.class, second::receive);
+            first.writer.println("exit");
+            second.socket.setSoTimeout(10000);
+            Assertions.assertEquals("Deck: (empty)", second.receive());
+        }
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final PrintWriter writer;
+
+        private Client(Server server) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        private String send(String command) throws IOException {
+            writer.println(command);
+            return receive();
+        }
+
+        /**
+         * Reads a response, which ends with an empty line.
+         */
+        private String receive() throws IOException {
+            var response = new StringBuilder();
+            for (var line = reader.readLine(); line != null && !line.isEmpty(); line = reader.readLine()) {
+                if (!response.isEmpty()) {
+                    response.append('\n');
+                }
+                response.append(line);
+            }
+            return response.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+}
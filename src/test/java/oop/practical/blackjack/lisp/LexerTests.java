@@ -0,0 +1,127 @@
+package oop.practical.blackjack.lisp;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public final class LexerTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testParity(String name, String input) {
+        Assertions.assertEquals(new RegexLexer(input).lex(), new Lexer(input).lex());
+    }
+
+    private static Stream<Arguments> testParity() {
+        //Note: The command scripts are the setups used by CommandsTests,
+        //followed by a few inputs targeting the edges of each character class.
+        return Stream.of(
+            Arguments.of("Empty", "(do)"),
+            Arguments.of("Deck", "(do (deck :2S :10H :AC :7D)\n)"),
+            Arguments.of("Deal", "(do (deck :2S :10H :AC :7D)\n(deal)\n)"),
+            Arguments.of("Custom Deal", "(do (deal :JS :10H :AC :6D)\n)"),
+            Arguments.of("Hit", "(do (deal :2S :10H :AC :7D :5S)\n(hit)\n)"),
+            Arguments.of("Stand", "(do (deal :8S :10H :AC :7D)\n(stand)\n)"),
+            Arguments.of("Split", "(do (deal :10S :10H :10C :7D :6S :QC)\n(split)\n(stand)\n)"),
+            Arguments.of("Double Down", "(do (deal :2S :10H :AC :7D :6S)\n(double-down)\n)"),
+            Arguments.of("Inspect", "(do (inspect :deck) (inspect :player) (inspect :dealer) (inspect :error))"),
+            Arguments.of("Numbers", "(f 1 -2 +3 4.5 6. 7e8 9e-10 1.5e+2 -x +)"),
+            Arguments.of("Identifiers", "(<= a_b c*d e/f g.h i!j k?l :m=n)"),
+            Arguments.of("Whitespace", " \r\n\r (do\r\n)\t(x)  "),
+            Arguments.of("Non-ASCII", "(déck :2♠ λ)")
+        );
+    }
+
+    @Test
+    public void testCharacterParity() {
+        for (var c = 0; c <= Character.MAX_VALUE; c++) {
+            var input = "(" + (char) c + "1" + (char) c + ")";
+            Assertions.assertEquals(new RegexLexer(input).lex(), new Lexer(input).lex(), "Character " + c);
+        }
+    }
+
+    /**
+     * The original regex-based lexer, kept as the reference implementation.
+     */
+    private static final class RegexLexer {
+
+        private final String input;
+        private int index = 0;
+        private int length = 0;
+
+        private RegexLexer(String input) {
+            this.input = input;
+        }
+
+        List<Token> lex() {
+            var tokens = new ArrayList<Token>();
+            while (has(0)) {
+                while (match("[ \n\r\r]")) {}
+                emit(Token.Type.OPERATOR);
+                if (peek("[0-9]") || peek("[+\\-]", "[0-9]")) {
+                    match("[+\\-]");
+                    while (match("[0-9]")) {}
+                    if (match('.', "[0-9]")) {
+                        while (match("[0-9]")) {}
+                    }
+                    if (match("e")) {
+                        match("[+\\-]");
+                        while (match("[0-9]")) {}
+                    }
+                    tokens.add(emit(Token.Type.NUMBER));
+                } else if (peek("[A-Za-z0-9_+\\-*/<>=.:!?]")) {
+                    while (match("[A-Za-z0-9_+\\-*/<>=.:!?]")) {}
+                    tokens.add(emit(Token.Type.IDENTIFIER));
+                } else if (has(0)) {
+                    length += 1;
+                    tokens.add(emit(Token.Type.OPERATOR));
+                }
+            }
+            return tokens;
+        }
+
+        private boolean peek(Object... objects) {
+            for (var i = 0; i < objects.length; i++) {
+                if (!has(i) || !test(objects[i], input.charAt(index + length + i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean match(Object... objects) {
+            var peek = peek(objects);
+            if (peek) {
+                length += objects.length;
+            }
+            return peek;
+        }
+
+        private boolean has(int offset) {
+            return index + length + offset < input.length();
+        }
+
+        private Token emit(Token.Type type) {
+            var token = new Token(type, input.substring(index, index + length));
+            index += length;
+            length = 0;
+            return token;
+        }
+
+        private static boolean test(Object object, char character) {
+            return switch (object) {
+                case Character c -> character == c;
+                case String regex -> Character.toString(character).matches(regex);
+                default -> throw new AssertionError(object);
+            };
+        }
+
+    }
+
+}
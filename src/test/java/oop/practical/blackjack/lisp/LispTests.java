@@ -0,0 +1,85 @@
+package oop.practical.blackjack.lisp;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public final class LispTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testParseAll(String name, String input, List<String> forms) throws ParseException {
+        var expected = new ArrayList<Ast>();
+        for (var form : forms) {
+            expected.add(Lisp.parse(form));
+        }
+        Assertions.assertEquals(expected, parseAll(new StringReader(input)));
+        //Note: A reader returning one character per read exercises every
+        //refill of the lexer buffer, including mid-token.
+        Assertions.assertEquals(expected, parseAll(new TrickleReader(input)));
+    }
+
+    private static Stream<Arguments> testParseAll() {
+        return Stream.of(
+            Arguments.of("Empty", "", List.of()),
+            Arguments.of("Single", "(deal :2S :10H :AC :7D)", List.of("(deal :2S :10H :AC :7D)")),
+            Arguments.of("Multiple", """
+                (deal :2S :10H :AC :7D :5S)
+                (hit)
+                (inspect :player)
+                """, List.of("(deal :2S :10H :AC :7D :5S)", "(hit)", "(inspect :player)")),
+            Arguments.of("Atoms", "1 :a b (c)", List.of("1", ":a", "b", "(c)")),
+            Arguments.of("Long Token", ":" + "x".repeat(20000), List.of(":" + "x".repeat(20000)))
+        );
+    }
+
+    @Test
+    public void testParseAllRecovers() throws Exception {
+        try (var forms = Lisp.parseAll(new StringReader(") (hit)"))) {
+            Assertions.assertThrows(ParseException.class, forms::next);
+            Assertions.assertEquals(Lisp.parse("(hit)"), forms.next());
+            Assertions.assertFalse(forms.hasNext());
+        }
+    }
+
+    private static List<Ast> parseAll(Reader reader) throws ParseException {
+        var forms = Lisp.parseAll(reader);
+        var result = new ArrayList<Ast>();
+        while (forms.hasNext()) {
+            result.add(forms.next());
+        }
+        return result;
+    }
+
+    private static final class TrickleReader extends Reader {
+
+        private final String input;
+        private int index = 0;
+
+        private TrickleReader(String input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (index == input.length()) {
+                return -1;
+            }
+            buffer[offset] = input.charAt(index++);
+            return 1;
+        }
+
+        @Override
+        public void close() {}
+
+    }
+
+}
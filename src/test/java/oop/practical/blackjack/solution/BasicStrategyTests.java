@@ -0,0 +1,41 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public final class BasicStrategyTests {
+
+    @Test
+    public void testResource() throws IOException {
+        //Note: Fails if the rules changed without regenerating the resource
+        //(see BasicStrategy#main).
+        Assertions.assertArrayEquals(bytes(BasicStrategy.compute()), bytes(BasicStrategy.getDefault()));
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        var bytes = bytes(BasicStrategy.getDefault());
+        Assertions.assertArrayEquals(bytes, bytes(BasicStrategy.read(new ByteArrayInputStream(bytes))));
+        bytes[0] = 0;
+        Assertions.assertThrows(IOException.class, () -> BasicStrategy.read(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testSimulation() {
+        //Note: The table should beat a strategy that ignores the rules.
+        var basic = Simulator.run(200000, 1, 1, Deck::new, BasicStrategy.getDefault());
+        var mimic = Simulator.run(200000, 1, 1, Deck::new, Strategy.MIMIC_DEALER);
+        Assertions.assertTrue(basic.expectedValue() > mimic.expectedValue(), basic + " " + mimic);
+    }
+
+    private static byte[] bytes(BasicStrategy strategy) throws IOException {
+        var out = new ByteArrayOutputStream();
+        strategy.write(out);
+        return out.toByteArray();
+    }
+
+}
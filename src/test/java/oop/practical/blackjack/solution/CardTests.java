@@ -0,0 +1,33 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class CardTests {
+
+    @Test
+    public void testOf() {
+        for (var ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            var card = Card.of(ordinal);
+            Assertions.assertEquals(ordinal, card.ordinal());
+            Assertions.assertSame(card, Card.of(card.getRank(), card.getSuit()));
+        }
+    }
+
+    @Test
+    public void testParse() {
+        for (var ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            var card = Card.of(ordinal);
+            Assertions.assertSame(card, Card.parse(card.toString()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "S", "1S", "11S", "10", "2X", "AH2"})
+    public void testParseInvalid(String text) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Card.parse(text));
+    }
+
+}
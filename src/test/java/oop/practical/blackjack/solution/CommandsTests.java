@@ -1,5 +1,6 @@
 package oop.practical.blackjack.solution;
 
+import com.sun.management.ThreadMXBean;
 import oop.practical.blackjack.lisp.Lisp;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
@@ -8,7 +9,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.lang.management.ManagementFactory;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -47,6 +50,25 @@ public final class CommandsTests {
             //Note: This test doesn't account for random behavior - make sure to check for that!
         }
 
+        @Test
+        public void testDeckCount() {
+            var commands = new Commands();
+            Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(deck :10H :AC :7D :3H)")));
+            //Note: The remaining cards count -1, so the cards dealt before them count +1.
+            var result = Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(inspect :count)")));
+            Assertions.assertEquals("Count: running 1, true 13.00", result);
+        }
+
+        @Test
+        public void testDeckShoe() {
+            var commands = new Commands();
+            Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(deck :shoe 6)")));
+            var result = Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(inspect :deck)")));
+            Assertions.assertEquals(6 * 52, result.replace("Deck: ", "").split(", ").length);
+            Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(deal)")));
+            Assertions.assertEquals("", commands.execute(Assertions.assertDoesNotThrow(() -> Lisp.parse("(inspect :error)"))));
+        }
+
     }
 
     @Nested
@@ -153,6 +175,25 @@ public final class CommandsTests {
                     Deck: (empty)
                     Player (22): 2S, QC, KS (busted)
                     Dealer (17): 10H, 7D (won)
+                    """),
+                Arguments.of("Empty Deck", """
+                    (deck :2S :3H :2C :3D :4S)
+                    (deal)
+                    (hit)
+                    """, """
+                    Deck: (empty)
+                    Player (8): 2S, 2C, 4S (playing)
+                    Dealer (? + 3): ?, 3D (waiting)
+                    """),
+                Arguments.of("Not In Play", """
+                    (deal :2S :10H :QC :7D :KS :5H)
+                    (hit)
+                    (hit)
+                    """, """
+                    Deck: 5H
+                    Player (22): 2S, QC, KS (busted)
+                    Dealer (17): 10H, 7D (won)
+                    Error: The hand is not in play.
                     """)
             );
         }
@@ -185,6 +226,14 @@ public final class CommandsTests {
                     Deck: (empty)
                     Player (19): 8S, AC (won)
                     Dealer (17): 10H, 7D (lost)
+                    """),
+                Arguments.of("Empty Deck", """
+                    (deal :2S :10H :AC :5D)
+                    (stand)
+                    """, """
+                    Deck: (empty)
+                    Player (13): 2S, AC (lost)
+                    Dealer (15): 10H, 5D (won)
                     """)
             );
         }
@@ -229,6 +278,38 @@ public final class CommandsTests {
                     Player (16): 10S, 6S (resolved)
                     Player (20): 10C, QC (playing)
                     Dealer (? + 7): ?, 7D (waiting, waiting)
+                    """),
+                Arguments.of("Second Hand 21", """
+                    (deal :8S :10H :8C :7D :10S :2C :AH)
+                    (split)
+                    (stand)
+                    (hit)
+                    """, """
+                    Deck: (empty)
+                    Player (18): 8S, 10S (won)
+                    Player (21): 8C, 2C, AH (won)
+                    Dealer (17): 10H, 7D (lost, lost)
+                    """),
+                Arguments.of("Second Hand Busted", """
+                    (deal :8S :10H :8C :7D :10S :2C :KH :QD)
+                    (split)
+                    (stand)
+                    (hit)
+                    (hit)
+                    """, """
+                    Deck: (empty)
+                    Player (18): 8S, 10S (won)
+                    Player (30): 8C, 2C, KH, QD (busted)
+                    Dealer (17): 10H, 7D (lost, won)
+                    """),
+                Arguments.of("Empty Deck", """
+                    (deal :10S :10H :10C :7D :6S)
+                    (split)
+                    """, """
+                    Deck: 6S
+                    Player (20): 10S, 10C (playing)
+                    Dealer (? + 7): ?, 7D (waiting)
+                    Error: The deck is empty, cannot split.
                     """)
             );
         }
@@ -259,6 +340,80 @@ public final class CommandsTests {
 
     }
 
+    @Nested
+    public final class AdviseTests {
+
+        @ParameterizedTest
+        @MethodSource
+        public void testAdvise(String name, String setup, String expected) {
+            test(setup, "(advise)", expected);
+        }
+
+        private static Stream<Arguments> testAdvise() {
+            return Stream.of(
+                Arguments.of("Hit", "(deal :10S :10H :6C :7D)", "Advice: hit"),
+                Arguments.of("Stand", "(deal :10S :10H :QC :7D)", "Advice: stand"),
+                Arguments.of("Double Down", "(deal :5S :10H :6C :7D)", "Advice: double-down"),
+                Arguments.of("Split", "(deal :8S :10H :8C :7D)", "Advice: split"),
+                //Note: Once the dealer has stood on 18, hitting a 17 is the only way to win.
+                Arguments.of("Dealer Played", "(deal :2S :10H :5C :8D :QS) (hit)", "Advice: hit"),
+                Arguments.of("Not In Play", "(deal :2S :10H :QC :7D :KS) (hit)", "Error: The hand is not in play.")
+            );
+        }
+
+    }
+
+    @Nested
+    public final class InspectTests {
+
+        @Test
+        public void testAppend() throws Exception {
+            var commands = new Commands();
+            commands.execute(Lisp.parse("(deal :8S :10H :8C :7D :3S :2H)"));
+            commands.execute(Lisp.parse("(split)"));
+            var inspect = Lisp.parse("(do (inspect :player) (inspect :error) (inspect :dealer) (inspect :deck) (inspect :count))");
+            var out = new StringBuilder("> ");
+            commands.execute(inspect, out);
+            //Note: Appends after what's already there, with the same output.
+            Assertions.assertEquals("> " + commands.execute(inspect), out.toString());
+        }
+
+        @Test
+        public void testAllocationFree() throws Exception {
+            var commands = new Commands();
+            commands.execute(Lisp.parse("(do (deck :seed 1) (deal) (hit))"));
+            var inspect = Lisp.parse("(do (inspect :player) (inspect :dealer) (inspect :deck) (inspect :count) (inspect :error))");
+            var threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+            var out = new StringBuilder();
+            for (var i = 0; i < 1000; i++) {
+                out.setLength(0);
+                commands.execute(inspect, out);
+            }
+            //Note: Measured around a second batch, once the builder has grown.
+            var before = threads.getCurrentThreadAllocatedBytes();
+            for (var i = 0; i < 1000; i++) {
+                out.setLength(0);
+                commands.execute(inspect, out);
+            }
+            var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            Assertions.assertTrue(allocated < 1000, allocated + " bytes for 1000 inspections");
+        }
+
+        @Test
+        public void testHundredths() {
+            //Note: Every true count a six-deck shoe can show.
+            for (var running = -60; running <= 60; running++) {
+                for (var size = 1; size <= 6 * Card.COUNT; size++) {
+                    var value = running * (double) Card.COUNT / size;
+                    var out = new StringBuilder();
+                    Commands.appendHundredths(out, value);
+                    Assertions.assertEquals(String.format(Locale.ROOT, "%.2f", value), out.toString());
+                }
+            }
+        }
+
+    }
+
     private static void test(String setup, String command, String expected) {
         var commands = new Commands();
         Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(do " + setup + ")")));
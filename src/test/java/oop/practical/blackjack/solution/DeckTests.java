@@ -0,0 +1,155 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+public final class DeckTests {
+
+    @Test
+    public void testShuffleSeeded() {
+        Assertions.assertEquals(new Deck(new SplittableRandom(42)).toString(), new Deck(new SplittableRandom(42)).toString());
+        Assertions.assertNotEquals(new Deck(new SplittableRandom(42)).toString(), new Deck(new SplittableRandom(43)).toString());
+    }
+
+    @Test
+    public void testShufflePermutation() {
+        var deck = new Deck(new SplittableRandom(1));
+        var cards = new HashSet<Card>();
+        while (!deck.isEmpty()) {
+            cards.add(deck.dealCard());
+        }
+        Assertions.assertEquals(Card.COUNT, cards.size());
+        Assertions.assertNull(deck.dealCard());
+        Assertions.assertEquals(-1, deck.deal());
+    }
+
+    @Test
+    public void testWrapAround() {
+        var deck = new Deck(new SplittableRandom(1));
+        for (var i = 0; i < 50; i++) {
+            deck.deal();
+        }
+        //Note: The remaining two cards are at the end of the buffer, so these
+        //are written to the front and the queue wraps around.
+        var remaining = deck.toString();
+        deck.addCard(Card.parse("2S"));
+        deck.addCard(Card.parse("10H"));
+        Assertions.assertEquals(remaining + ", 2S, 10H", deck.toString());
+        deck.shuffle();
+        Assertions.assertEquals(4, deck.getSize());
+    }
+
+    @Test
+    public void testGrow() {
+        var deck = new Deck(new SplittableRandom(1));
+        deck.deal();
+        var expected = new StringBuilder(deck.toString());
+        for (var i = 0; i < Card.COUNT; i++) {
+            deck.addCard(Card.of(i));
+            expected.append(", ").append(Card.of(i));
+        }
+        Assertions.assertEquals(2 * Card.COUNT - 1, deck.getSize());
+        Assertions.assertEquals(expected.toString(), deck.toString());
+    }
+
+    @Test
+    public void testRemaining() {
+        //Note: Compares the counts kept by the deck against walking the queue
+        //through a random mix of operations.
+        var random = new SplittableRandom(1);
+        var deck = new Deck(new SplittableRandom(1));
+        for (var i = 0; i < 10000; i++) {
+            switch (random.nextInt(20)) {
+                case 0 -> deck.clear();
+                case 1 -> deck.shuffle();
+                case 2, 3, 4, 5 -> deck.addCard(random.nextInt(Card.COUNT));
+                default -> deck.deal();
+            }
+            var counts = new int[Card.Rank.values().length];
+            if (!deck.isEmpty()) {
+                for (var card : deck.toString().replace("Deck: ", "").split(", ")) {
+                    counts[Card.parse(card).getRank().ordinal()]++;
+                }
+            }
+            for (var rank : Card.Rank.values()) {
+                Assertions.assertEquals(counts[rank.ordinal()], deck.getRemaining(rank));
+            }
+        }
+    }
+
+    @Test
+    public void testCount() {
+        var deck = new Deck(new SplittableRandom(1));
+        for (var system : CountingSystem.values()) {
+            Assertions.assertEquals(0, system.getRunningCount(deck), system.name());
+        }
+        var expected = 0;
+        while (deck.getSize() > 1) {
+            var card = deck.deal();
+            expected += CountingSystem.HI_LO.getTag(Card.of(card).getRank());
+            Assertions.assertEquals(expected, CountingSystem.HI_LO.getRunningCount(deck));
+        }
+        Assertions.assertEquals(expected * (double) Card.COUNT, CountingSystem.HI_LO.getTrueCount(deck));
+        deck.deal();
+        for (var system : CountingSystem.values()) {
+            Assertions.assertEquals(0, system.getRunningCount(deck), system.name());
+        }
+    }
+
+    @Test
+    public void testShoe() {
+        var shoe = new Shoe(6, 0.5, new SplittableRandom(1));
+        Assertions.assertEquals(6 * Card.COUNT, shoe.getSize());
+        for (var i = 0; i < 3 * Card.COUNT; i++) {
+            Assertions.assertFalse(shoe.isCutCardReached());
+            shoe.deal();
+        }
+        Assertions.assertTrue(shoe.isCutCardReached());
+        shoe.beginRound();
+        Assertions.assertFalse(shoe.isCutCardReached());
+        Assertions.assertEquals(6 * Card.COUNT, shoe.getSize());
+        var counts = new int[Card.COUNT];
+        while (!shoe.isEmpty()) {
+            counts[shoe.deal()]++;
+        }
+        for (var count : counts) {
+            Assertions.assertEquals(6, count);
+        }
+    }
+
+    @Test
+    public void testShoeCustom() {
+        //Note: Once given custom cards a shoe deals them like any deck, so it
+        //doesn't reshuffle at the cut card or when it runs out.
+        var shoe = new Shoe(1, 0.5, new SplittableRandom(1));
+        for (var i = 0; i < Card.COUNT / 2; i++) {
+            shoe.deal();
+        }
+        shoe.clear();
+        shoe.addCard(Card.parse("AS"));
+        Assertions.assertTrue(shoe.isCutCardReached());
+        shoe.beginRound();
+        Assertions.assertEquals("Deck: AS", shoe.toString());
+        Assertions.assertEquals(Card.parse("AS").ordinal(), shoe.deal());
+        Assertions.assertEquals(-1, shoe.deal());
+        Assertions.assertTrue(shoe.isEmpty());
+    }
+
+    @Test
+    public void testReshuffleCustom() {
+        //Note: A custom deck doesn't know its dealt cards any more, so it
+        //can't bring them back.
+        var deck = new Deck(new SplittableRandom(1));
+        deck.deal();
+        deck.reshuffle();
+        Assertions.assertEquals(Card.COUNT, deck.getSize());
+        deck.clear();
+        deck.addCard(Card.parse("AS"));
+        Assertions.assertThrows(IllegalStateException.class, deck::reshuffle);
+        Assertions.assertEquals("Deck: AS", deck.toString());
+    }
+
+}
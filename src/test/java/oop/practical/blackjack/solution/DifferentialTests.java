@@ -0,0 +1,143 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Runs the same random sessions through this build's {@link Commands} (or
+ * the build given as differential.current) and through another build's,
+ * loaded from its compiled classes, and checks every output matches. Used to
+ * show a refactoring keeps the outputs of the commit before it, e.g. with the
+ * parent commit built into a worktree:
+ *
+ * <pre>
+ * ./gradlew test --tests '*DifferentialTests' \
+ *     -Pdifferential.baseline=../parent/build/classes/java/main \
+ *     -Pdifferential.sessions=200000
+ * </pre>
+ *
+ * Sessions only use commands every build has supported, with explicit cards
+ * so no shuffle is involved.
+ */
+@EnabledIfSystemProperty(named = "differential.baseline", matches = ".+")
+public final class DifferentialTests {
+
+    private static final String[] RANKS = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+    private static final String[] SUITS = {"H", "D", "C", "S"};
+    private static final String[] ACTIONS = {"(hit)", "(stand)", "(split)", "(double-down)", "(deal)",
+        "(inspect :player)", "(inspect :dealer)", "(inspect :error)", "(inspect :deck)"};
+    private static final String INSPECT = "(do (inspect :deck) (inspect :player) (inspect :dealer) (inspect :error))";
+
+    @Test
+    public void testSessions() throws Exception {
+        var baseline = new Build(Path.of(System.getProperty("differential.baseline")));
+        var current = System.getProperty("differential.current") != null
+            ? new Build(Path.of(System.getProperty("differential.current")))
+            : new Build(DifferentialTests.class.getClassLoader());
+        var sessions = Integer.getInteger("differential.sessions", 10_000);
+        var random = new SplittableRandom(1);
+        for (var i = 0; i < sessions; i++) {
+            var script = session(random);
+            Assertions.assertEquals(baseline.run(script), current.run(script), String.join("\n", script));
+        }
+    }
+
+    /**
+     * Returns a session of one or two rounds, each dealt from random cards
+     * (often a pair, to allow splitting) and followed by random actions.
+     */
+    private static List<String> session(SplittableRandom random) {
+        var script = new ArrayList<String>();
+        var rounds = 1 + random.nextInt(2);
+        for (var round = 0; round < rounds; round++) {
+            var deal = new StringBuilder("(deal");
+            var cards = 4 + random.nextInt(12);
+            var pair = random.nextInt(3) == 0;
+            for (var i = 0; i < cards; i++) {
+                var rank = pair && i == 0 ? "K" : pair && i == 2 ? "10" : RANKS[random.nextInt(RANKS.length)];
+                deal.append(" :").append(rank).append(SUITS[random.nextInt(SUITS.length)]);
+            }
+            script.add(deal.append(')').toString());
+            for (var i = random.nextInt(7); i > 0; i--) {
+                if (random.nextInt(4) == 0) {
+                    //Note: A do of actions, some of which have no output.
+                    script.add("(do " + ACTIONS[random.nextInt(ACTIONS.length)] + " " + ACTIONS[random.nextInt(ACTIONS.length)] + ")");
+                } else {
+                    script.add(ACTIONS[random.nextInt(ACTIONS.length)]);
+                }
+            }
+            script.add(INSPECT);
+        }
+        return script;
+    }
+
+    /**
+     * A build's Lisp parser and Commands, in a class loader of their own.
+     */
+    private static final class Build {
+
+        private final Method parse;
+        private final Class<?> commands;
+        private final Method execute;
+
+        private Build(Path classes) throws Exception {
+            this(load(classes));
+        }
+
+        private Build(ClassLoader loader) throws Exception {
+            parse = loader.loadClass("oop.practical.blackjack.lisp.Lisp").getMethod("parse", String.class);
+            commands = loader.loadClass("oop.practical.blackjack.solution.Commands");
+            execute = commands.getMethod("execute", loader.loadClass("oop.practical.blackjack.lisp.Ast"));
+        }
+
+        /**
+         * Returns a class loader for the build's classes. A build with
+         * metrics registers them over JMX under fixed names, which only one
+         * class loader can do, so they are left disabled.
+         */
+        private static ClassLoader load(Path classes) throws Exception {
+            var loader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, ClassLoader.getPlatformClassLoader());
+            var metrics = System.clearProperty("blackjack.metrics");
+            try {
+                Class.forName("oop.practical.blackjack.solution.Metrics", true, loader);
+            } catch (ClassNotFoundException e) {
+                //Note: Built before there were metrics.
+            } finally {
+                if (metrics != null) {
+                    System.setProperty("blackjack.metrics", metrics);
+                }
+            }
+            return loader;
+        }
+
+        /**
+         * Returns every output of the script in a fresh session, ending at the
+         * first exception, which is named instead.
+         */
+        private String run(List<String> script) throws Exception {
+            var session = commands.getConstructor().newInstance();
+            var outputs = new StringBuilder();
+            for (var line : script) {
+                try {
+                    outputs.append(execute.invoke(session, parse.invoke(null, line))).append('\n');
+                } catch (InvocationTargetException e) {
+                    outputs.append(e.getCause().getClass().getName()).append('\n');
+                    break;
+                }
+            }
+            return outputs.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+public final class ExpectedValueTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testInspect(String name, String setup, String expected) {
+        var commands = new Commands();
+        Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(do " + setup + ")")));
+        var result = Assertions.assertDoesNotThrow(() -> commands.execute(Lisp.parse("(inspect :ev)")));
+        Assertions.assertEquals(expected, result);
+    }
+
+    private static Stream<Arguments> testInspect() {
+        //Note: The hole card is unseen, so these are worked out with it
+        //being either the 10H or the card left in the deck.
+        return Stream.of(
+            Arguments.of("Stand", "(deal :10S :10H :9C :7D :5S)", "EV: stand +1.0000, hit -1.0000, double-down -2.0000"),
+            Arguments.of("Split", "(deal :10S :10H :QC :7D :5S)", "EV: stand +1.0000, hit -1.0000, double-down -2.0000, split +0.0000"),
+            Arguments.of("Not In Play", "(deal :10S :10H :QC :7D :5S) (stand)", "EV: (empty)"),
+            Arguments.of("Not Dealt", "", "EV: (empty)")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testSimulated(String name, String player, boolean doubleDown) {
+        //Note: Standing and doubling down don't rely on any simplification,
+        //so they should match the average over every unseen card order.
+        var first = Card.parse(player.split(" ")[0]).ordinal();
+        var second = Card.parse(player.split(" ")[1]).ordinal();
+        var up = Card.parse("7D").ordinal(); // no dealer blackjack to rule out
+        var unseen = new ArrayList<Integer>();
+        for (var card = 0; card < Card.COUNT; card++) {
+            if (card != first && card != second && card != up) {
+                unseen.add(card);
+            }
+        }
+
+        var game = new Game();
+        game.setDeck(deck(first, up, second, unseen));
+        game.deal();
+        var ev = ExpectedValue.of(game);
+        var expected = doubleDown ? ev.doubleDown() : ev.stand();
+
+        var random = new SplittableRandom(1);
+        var total = 0.0;
+        var trials = 40000;
+        for (var i = 0; i < trials; i++) {
+            Collections.shuffle(unseen, random);
+            game.setDeck(deck(first, up, second, unseen));
+            game.deal();
+            Assertions.assertNull(doubleDown ? game.doubleDown() : game.stand());
+            total += switch (game.getPlayer().getMainHand().getStatus()) {
+                case WON -> 1;
+                case LOST, BUSTED -> -1;
+                default -> 0;
+            } * (doubleDown ? 2 : 1);
+        }
+        Assertions.assertEquals(expected, total / trials, 0.03);
+    }
+
+    private static Stream<Arguments> testSimulated() {
+        return Stream.of(
+            Arguments.of("Stand 16", "10S 6H", false),
+            Arguments.of("Stand 19", "10S 9H", false),
+            Arguments.of("Double Down 11", "5S 6H", true),
+            Arguments.of("Double Down Soft", "AS 6H", true)
+        );
+    }
+
+    @Test
+    public void testShoe() {
+        //Note: Exercises the cache on a long recursion; the values just need
+        //to be sane.
+        var game = new Game();
+        game.setDeck(new Shoe(8, Shoe.DEFAULT_PENETRATION, new SplittableRandom(1)));
+        for (var i = 0; i < 20; i++) {
+            game.deal();
+            var ev = ExpectedValue.of(game);
+            if (ev != null) {
+                for (var value : new double[] {ev.stand(), ev.hit()}) {
+                    Assertions.assertTrue(value >= -1 && value <= 1, ev.toString());
+                }
+            }
+        }
+    }
+
+    private static Deck deck(int first, int up, int second, ArrayList<Integer> unseen) {
+        var deck = new Deck();
+        deck.clear();
+        deck.addCard(first);
+        deck.addCard(unseen.getFirst()); // the hole card
+        deck.addCard(second);
+        deck.addCard(up);
+        for (var i = 1; i < unseen.size(); i++) {
+            deck.addCard(unseen.get(i));
+        }
+        return deck;
+    }
+
+}
@@ -0,0 +1,168 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+public final class GameStateTests {
+
+    private static final Map<String, Function<Game, String>> GAME = Map.of(
+        "deal", Game::deal,
+        "hit", Game::hit,
+        "stand", Game::stand,
+        "split", Game::split,
+        "double-down", Game::doubleDown
+    );
+    private static final Map<String, UnaryOperator<GameState>> STATE = Map.of(
+        "deal", GameState::deal,
+        "hit", GameState::hit,
+        "stand", GameState::stand,
+        "split", GameState::split,
+        "double-down", GameState::doubleDown
+    );
+    private static final String[] ACTIONS = {"deal", "hit", "stand", "split", "double-down"};
+
+    @ParameterizedTest
+    @MethodSource
+    public void testRules(String name, long seed) {
+        //Note: Plays a Game and a GameState side by side through random
+        //actions, then checks every state along the way is unchanged.
+        var random = new SplittableRandom(seed);
+        var game = new Game();
+        game.setDeck(new Deck(new SplittableRandom(seed)));
+        game.deal();
+        var state = GameState.of(game);
+        var states = new ArrayList<GameState>();
+        var rendered = new ArrayList<String>();
+        for (var step = 0; step < 1_000; step++) {
+            var action = ACTIONS[random.nextInt(ACTIONS.length)];
+            String error;
+            try {
+                error = GAME.get(action).apply(game);
+            } catch (RuntimeException e) {
+                //Note: Game throws once the dealer draws from an empty deck.
+                var previous = state;
+                Assertions.assertThrows(e.getClass(), () -> STATE.get(action).apply(previous), action + " at step " + step);
+                break;
+            }
+            state = STATE.get(action).apply(state);
+            Assertions.assertEquals(error, state.getError(), action + " at step " + step);
+            Assertions.assertEquals(render(GameState.of(game)), render(state), action + " at step " + step);
+            Assertions.assertEquals(game.isRoundOver(), state.isRoundOver(), action + " at step " + step);
+            states.add(state);
+            rendered.add(render(state));
+        }
+        for (var i = 0; i < states.size(); i++) {
+            Assertions.assertEquals(rendered.get(i), render(states.get(i)), "state " + i);
+        }
+    }
+
+    private static Stream<Arguments> testRules() {
+        return Stream.of(
+            Arguments.of("Seed 1", 1L),
+            Arguments.of("Seed 2", 2L),
+            Arguments.of("Seed 3", 3L),
+            Arguments.of("Seed 4", 4L),
+            Arguments.of("Seed 5", 5L)
+        );
+    }
+
+    @Test
+    public void testBranch() throws ParseException {
+        var commands = new Commands(1);
+        commands.execute(Lisp.parse("(deal :8S :10C :8H :7D :3S :2H :10D :2C)"));
+        var state = commands.getState();
+        var split = state.split();
+        var stand = state.stand();
+        Assertions.assertEquals("Player (16): 8S, 8H (playing)", state.inspectPlayer());
+        Assertions.assertEquals("""
+            Player (11): 8S, 3S (playing)
+            Player (10): 8H, 2H (waiting)""", split.inspectPlayer());
+        Assertions.assertEquals("Player (16): 8S, 8H (lost)", stand.inspectPlayer());
+        Assertions.assertEquals("Dealer (17): 10C, 7D (won)", stand.inspectDealer());
+        //Note: The session itself is untouched.
+        Assertions.assertEquals("Player (16): 8S, 8H (playing)", commands.execute(Lisp.parse("(inspect :player)")));
+        Assertions.assertEquals(4, state.getDeckSize());
+        Assertions.assertEquals(2, split.getDeckSize());
+    }
+
+    @Test
+    public void testError() throws ParseException {
+        var commands = new Commands(1);
+        commands.execute(Lisp.parse("(deal :10S :10C :2H :7D :3C :9H)"));
+        var hit = commands.getState().hit();
+        var doubled = hit.doubleDown();
+        Assertions.assertEquals("Double down is only allowed on the initial hand of two cards.", doubled.getError());
+        Assertions.assertEquals(hit.inspectPlayer(), doubled.inspectPlayer());
+        var stand = doubled.stand();
+        Assertions.assertNull(stand.getError());
+        Assertions.assertEquals("Player (15): 10S, 2H, 3C (lost)", stand.inspectPlayer());
+        Assertions.assertEquals("Not enough cards to deal.", stand.deal().getError());
+        Assertions.assertThrows(IllegalStateException.class, () -> new Commands(1).getState());
+    }
+
+    @Test
+    public void testDeal() {
+        var deck = new Deck(new SplittableRandom(1));
+        var state = GameState.deal(deck);
+        Assertions.assertEquals(Card.COUNT, deck.getSize());
+        Assertions.assertEquals(Card.COUNT - 4, state.getDeckSize());
+        var stand = state.stand();
+        Assertions.assertEquals(stand.getDeckSize() - 4, stand.deal().getDeckSize());
+        //Note: States share the deck's cards, until the deck writes to them.
+        var player = stand.deal().inspectPlayer();
+        deck.shuffle();
+        Assertions.assertEquals(player, stand.deal().inspectPlayer());
+        deck.clear();
+        deck.addCard(0);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameState.deal(deck));
+    }
+
+    @Test
+    public void testSearch() throws ParseException {
+        //Note: 16 against 17 with a 5 to come: standing loses, hitting wins
+        //and doubling down wins twice.
+        var commands = new Commands(1);
+        commands.execute(Lisp.parse("(deal :10S :10C :6H :7D :5C :9H)"));
+        var state = commands.getState();
+        Assertions.assertEquals(2.0, best(state));
+        Assertions.assertEquals(-1.0, state.stand().getNet());
+        Assertions.assertEquals("Player (16): 10S, 6H (playing)", state.inspectPlayer());
+        Assertions.assertThrows(IllegalStateException.class, state::getNet);
+    }
+
+    /**
+     * Returns the best net the player can make from the state, knowing the
+     * order of the deck, by trying every action.
+     */
+    private static double best(GameState state) {
+        if (state.isRoundOver()) {
+            return state.getNet();
+        }
+        var best = Double.NEGATIVE_INFINITY;
+        for (var action : List.of(Strategy.Action.values())) {
+            var next = state.apply(action);
+            if (next.getError() == null) {
+                best = Math.max(best, best(next));
+            }
+        }
+        return best;
+    }
+
+    private static String render(GameState state) {
+        return state.inspectPlayer() + "\n" + state.inspectDealer() + "\n" + state.getDeckSize() + " " + state.hasDealerPlayed();
+    }
+
+}
@@ -0,0 +1,114 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+public final class HandTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testValue(String name, String cards, int value, boolean soft) {
+        var hand = hand(cards);
+        Assertions.assertEquals(value, hand.getValue());
+        Assertions.assertEquals(soft, hand.isSoft());
+        Assertions.assertEquals(value > 21, hand.isBusted());
+    }
+
+    private static Stream<Arguments> testValue() {
+        return Stream.of(
+            Arguments.of("Hard", "10H 7D", 17, false),
+            Arguments.of("Soft", "AH 6D", 17, true),
+            Arguments.of("Ace Value Change", "2S AC KS", 13, false),
+            Arguments.of("Two Aces", "AS AC", 12, true),
+            Arguments.of("Four Aces", "AS AC AD AH 7S", 21, true),
+            Arguments.of("Busted", "2S QC KS", 22, false)
+        );
+    }
+
+    @Test
+    public void testValueRandom() {
+        //Note: Compares the running totals against recomputing the value
+        //the way the original hand scan did.
+        var random = new SplittableRandom(1);
+        var hand = new Hand();
+        for (var i = 0; i < 10000; i++) {
+            hand.clear();
+            var size = 1 + random.nextInt(8);
+            for (var j = 0; j < size; j++) {
+                hand.addCard(random.nextInt(Card.COUNT));
+                var value = 0;
+                var aces = 0;
+                for (var k = 0; k < hand.size(); k++) {
+                    value += Card.value(hand.getCard(k));
+                    aces += Card.isAce(hand.getCard(k)) ? 1 : 0;
+                }
+                while (value > 21 && aces > 0) {
+                    value -= 10;
+                    aces--;
+                }
+                Assertions.assertEquals(value, hand.getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testTransitions() {
+        var hand = new Hand();
+        Assertions.assertEquals(Hand.Status.WAITING, hand.getStatus());
+        hand.setStatus(Hand.Status.PLAYING);
+        hand.setStatus(Hand.Status.RESOLVED);
+        Assertions.assertThrows(IllegalStateException.class, () -> hand.setStatus(Hand.Status.PLAYING));
+        hand.setStatus(Hand.Status.WON);
+        for (var status : Hand.Status.values()) {
+            Assertions.assertThrows(IllegalStateException.class, () -> hand.setStatus(status));
+        }
+        hand.clear();
+        Assertions.assertEquals(Hand.Status.WAITING, hand.getStatus());
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testAgainst(String name, String cards, String dealer, Hand.Status expected) {
+        Assertions.assertEquals(expected, hand(cards).against(hand(dealer)));
+    }
+
+    private static Stream<Arguments> testAgainst() {
+        return Stream.of(
+            Arguments.of("Higher", "10H 9D", "10S 7C", Hand.Status.WON),
+            Arguments.of("Lower", "10H 7D", "10S 9C", Hand.Status.LOST),
+            Arguments.of("Equal", "10H 8D", "AS 7C", Hand.Status.TIED),
+            Arguments.of("Dealer Busted", "10H 2D", "10S 6C KD", Hand.Status.WON),
+            //Note: A busted hand loses even when the dealer busts too.
+            Arguments.of("Both Busted", "10H 2D QS", "10S 6C KD", Hand.Status.BUSTED)
+        );
+    }
+
+    @Test
+    public void testSplit() {
+        var player = new Player();
+        player.getMainHand().addCard(Card.parse("AS"));
+        player.getMainHand().addCard(Card.parse("AH"));
+        var split = player.split();
+        Assertions.assertEquals(11, player.getMainHand().getValue());
+        Assertions.assertEquals(11, split.getValue());
+        Assertions.assertSame(split, player.getSplitHand());
+        player.reset();
+        Assertions.assertEquals(1, player.getHandCount());
+        Assertions.assertEquals(0, player.getMainHand().size());
+    }
+
+    private static Hand hand(String cards) {
+        var hand = new Hand();
+        for (var card : cards.split(" ")) {
+            hand.addCard(Card.parse(card));
+        }
+        return hand;
+    }
+
+}
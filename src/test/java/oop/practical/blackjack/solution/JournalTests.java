@@ -0,0 +1,171 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+public final class JournalTests {
+
+    @TempDir
+    private Path directory;
+
+    @ParameterizedTest
+    @EnumSource(Journal.Sync.class)
+    public void testRecover(Journal.Sync sync) throws Exception {
+        String state;
+        try (var journal = new Journal(directory, sync, 1 << 16, 1)) {
+            Sessions.execute(journal, "(deck :seed 1)");
+            Sessions.play(journal, new SplittableRandom(1), 100);
+            state = Sessions.execute(journal, Sessions.STATE);
+        }
+        try (var journal = new Journal(directory, sync, 1 << 16, 2)) {
+            Assertions.assertEquals(102, journal.getRecovered());
+            Assertions.assertEquals(state, Sessions.execute(journal, Sessions.STATE));
+            Assertions.assertEquals(103, journal.getCount());
+        }
+    }
+
+    @Test
+    public void testRecoverUnclosed() throws Exception {
+        //Note: Simulates a crash; the mapped pages are already in the file.
+        var journal = new Journal(directory, Journal.Sync.NONE, 1 << 16, 1);
+        Sessions.execute(journal, "(deal :8S :10C :8H :7D :10S :10H :10D :2C)");
+        Sessions.execute(journal, "(split)");
+        var state = Sessions.execute(journal, Sessions.STATE);
+        try (var recovered = new Journal(directory, Journal.Sync.NONE, 1 << 16, 2)) {
+            Assertions.assertEquals(state, Sessions.execute(recovered, Sessions.STATE));
+        }
+    }
+
+    @Test
+    public void testRoll() throws Exception {
+        //Note: Small segments roll every few dozen commands, and a session
+        //recovered from a copy of the journal plays on exactly like the
+        //original, reshuffles included.
+        var copy = Files.createDirectory(directory.resolve("copy"));
+        var original = directory.resolve("original");
+        var random = new SplittableRandom(1);
+        try (var journal = new Journal(original, Journal.Sync.GROUP, 4096, 1)) {
+            Sessions.execute(journal, "(deck :shoe 2)");
+            Sessions.play(journal, random, 1_000);
+            Assertions.assertTrue(segments(original).size() > 10, segments(original).toString());
+            for (var segment : segments(original)) {
+                Files.copy(segment, copy.resolve(segment.getFileName()));
+            }
+            try (var recovered = new Journal(copy, Journal.Sync.GROUP, 4096, 2)) {
+                Assertions.assertEquals(1_001, recovered.getRecovered());
+                for (var step = 0; step < 1_000; step++) {
+                    var action = Sessions.action(random);
+                    Assertions.assertEquals(Sessions.execute(journal, action), Sessions.execute(recovered, action), action + " at step " + step);
+                    Assertions.assertEquals(Sessions.execute(journal, Sessions.STATE), Sessions.execute(recovered, Sessions.STATE), action + " at step " + step);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        var expected = new ArrayList<Replay.Step>();
+        try (var journal = new Journal(directory, Journal.Sync.NONE, 4096, 1)) {
+            for (var command : List.of("(deck :shoe 2)", "(deal)", "(inspect :player)", "(hit)", "(hit)", "(deal)")) {
+                expected.add(new Replay.Step(command, Sessions.execute(journal, command)));
+            }
+            var random = new SplittableRandom(1);
+            for (var step = 0; step < 500; step++) {
+                var action = Sessions.action(random);
+                expected.add(new Replay.Step(action, Sessions.execute(journal, action)));
+            }
+        }
+        Assertions.assertEquals(expected, Journal.read(directory));
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        try (var journal = new Journal(directory, Journal.Sync.ALWAYS, 1 << 16, 1)) {
+            Sessions.execute(journal, "(deal :8S :10C :8H :7D :10S)");
+            Sessions.execute(journal, "(hit)");
+        }
+        //Note: Flips the last byte written, the end of the (hit) output.
+        var segment = segments(directory).getFirst();
+        var bytes = Files.readAllBytes(segment);
+        var last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~bytes[last]}), last);
+        }
+        try (var journal = new Journal(directory, Journal.Sync.ALWAYS, 1 << 16, 2)) {
+            Assertions.assertEquals(1, journal.getRecovered());
+            Assertions.assertEquals("Player (16): 8S, 8H (playing)", Sessions.execute(journal, "(inspect :player)"));
+            Sessions.execute(journal, "(stand)");
+        }
+        Assertions.assertEquals(List.of("(deal :8S :10C :8H :7D :10S)", "(inspect :player)", "(stand)"),
+            Journal.read(directory).stream().map(Replay.Step::command).toList());
+    }
+
+    @Test
+    public void testStaleRecord() throws Exception {
+        //Note: A torn record with whole ones still behind it. Recovery clears
+        //them, or the next record appended with the same length would leave
+        //the stale (hit) lined up after it, to be replayed as the next one.
+        try (var journal = new Journal(directory, Journal.Sync.ALWAYS, 1 << 16, 1)) {
+            Sessions.execute(journal, "(deal :8S :10C :8H :7D :10S)");
+            Sessions.execute(journal, "(inspect :error)");
+            Sessions.execute(journal, "(hit)");
+        }
+        var segment = segments(directory).getFirst();
+        var bytes = Files.readAllBytes(segment);
+        var torn = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("(inspect :error)");
+        try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~bytes[torn]}), torn);
+        }
+        try (var journal = new Journal(directory, Journal.Sync.ALWAYS, 1 << 16, 2)) {
+            Assertions.assertEquals(1, journal.getRecovered());
+            Sessions.execute(journal, "(inspect :error)");
+        }
+        try (var journal = new Journal(directory, Journal.Sync.ALWAYS, 1 << 16, 3)) {
+            Assertions.assertEquals(2, journal.getRecovered());
+            Assertions.assertEquals("Player (16): 8S, 8H (playing)", Sessions.execute(journal, "(inspect :player)"));
+        }
+        Assertions.assertEquals(List.of("(deal :8S :10C :8H :7D :10S)", "(inspect :error)", "(inspect :player)"),
+            Journal.read(directory).stream().map(Replay.Step::command).toList());
+    }
+
+    @Test
+    public void testException() throws Exception {
+        //Note: Hitting a deck before any deal throws; it's journaled, and
+        //replays, as Main shows it.
+        try (var journal = new Journal(directory, Journal.Sync.NONE, 1 << 16, 1)) {
+            Sessions.execute(journal, "(deck :seed 1)");
+            Assertions.assertThrows(RuntimeException.class, () -> journal.execute("(hit)"));
+            Assertions.assertThrows(ParseException.class, () -> journal.execute(")"));
+        }
+        try (var journal = new Journal(directory, Journal.Sync.NONE, 1 << 16, 2)) {
+            Assertions.assertEquals(2, journal.getRecovered());
+        }
+        Assertions.assertTrue(Journal.read(directory).getLast().output().startsWith("Unexpected exception: "));
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+//Note: The test task runs with -Dblackjack.metrics=true. Metrics are
+//process-wide, so these check how much they change rather than their values.
+public final class MetricsTests {
+
+    @Test
+    public void testEnabled() {
+        Assertions.assertTrue(Metrics.ENABLED);
+    }
+
+    @Test
+    public void testCounters() throws ParseException {
+        var before = Arrays.stream(Metrics.Counter.values()).mapToLong(Metrics::get).toArray();
+        var hits = Metrics.getLatency("hit").getCount();
+        var commands = new Commands(1);
+        //Note: Splits 8s into two 18s, busts the first and doubles the second.
+        commands.execute(Lisp.parse("(deal :8S :10C :8H :7D :10S :10H :10D :2C)"));
+        commands.execute(Lisp.parse("(do (split) (hit) (double-down))"));
+        new Deck(new SplittableRandom(1)).reshuffle();
+        var after = Arrays.stream(Metrics.Counter.values()).mapToLong(Metrics::get).toArray();
+        Assertions.assertArrayEquals(new long[] {1, 1, 1, 1, 1}, new long[] {
+            after[0] - before[0], after[1] - before[1], after[2] - before[2], after[3] - before[3], after[4] - before[4]
+        });
+        Assertions.assertEquals(hits + 1, Metrics.getLatency("hit").getCount());
+        Assertions.assertNull(Metrics.getLatency("unknown"));
+    }
+
+    @Test
+    public void testInspect() throws ParseException {
+        var commands = new Commands(1);
+        commands.execute(Lisp.parse("(deck :seed 1)"));
+        var inspect = commands.execute(Lisp.parse("(inspect :metrics)"));
+        Assertions.assertTrue(inspect.startsWith("Metrics: hands dealt "), inspect);
+        Assertions.assertTrue(inspect.matches("(?s).*\ndeck: count \\d+, mean [0-9.]+ us, p50 [0-9.]+ us, p99 [0-9.]+ us, max [0-9.]+ us.*"), inspect);
+    }
+
+    @Test
+    public void testJmx() throws JMException {
+        var server = ManagementFactory.getPlatformMBeanServer();
+        new Deck(new SplittableRandom(1)).reshuffle();
+        Assertions.assertEquals(Metrics.get(Metrics.Counter.RESHUFFLES), server.getAttribute(new ObjectName("oop.practical.blackjack:type=Metrics"), "Reshuffles"));
+        Assertions.assertEquals(Metrics.getLatency("hit").getCount(), server.getAttribute(new ObjectName("oop.practical.blackjack:type=Latency,name=hit"), "Count"));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testBucket(String name, long value) {
+        //Note: Every value lands in a bucket starting at most 1/32 below it,
+        //and the next bucket starts above it.
+        var bucket = Histogram.bucket(value);
+        var lowest = Histogram.lowestValue(bucket);
+        Assertions.assertTrue(lowest <= value && value - lowest <= value / 32, lowest + " for " + value);
+        Assertions.assertTrue(value == Long.MAX_VALUE || Histogram.lowestValue(bucket + 1) > value);
+    }
+
+    private static Stream<Arguments> testBucket() {
+        return Stream.of(
+            Arguments.of("Zero", 0L),
+            Arguments.of("Exact", 63L),
+            Arguments.of("First Power", 64L),
+            Arguments.of("Between", 1_000L),
+            Arguments.of("Second", 1_000_000_000L),
+            Arguments.of("Maximum", Long.MAX_VALUE)
+        );
+    }
+
+    @Test
+    public void testPercentiles() {
+        var histogram = new Histogram();
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(50));
+        for (var i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        Assertions.assertEquals(10_000, histogram.getCount());
+        Assertions.assertEquals(5_000_500, histogram.getMean());
+        Assertions.assertEquals(10_000_000, histogram.getMax());
+        Assertions.assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 / 32.0);
+        Assertions.assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 / 32.0);
+        Assertions.assertEquals(10_000_000, histogram.getValueAtPercentile(100), 10_000_000 / 32.0);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    }
+
+    @Test
+    public void testConcurrentRecording() {
+        var histogram = new Histogram();
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            for (var thread = 0; thread < 4; thread++) {
+                executor.submit(() -> {
+                    for (var i = 0; i < 100_000; i++) {
+                        histogram.record(i);
+                    }
+                });
+            }
+        }
+        Assertions.assertEquals(400_000, histogram.getCount());
+        Assertions.assertEquals(99_999, histogram.getMax());
+        Assertions.assertEquals(49_999.5, histogram.getMean());
+    }
+
+}
@@ -0,0 +1,41 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+public final class PlanTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testCompile(String name, String script) {
+        var ast = Assertions.assertDoesNotThrow(() -> Lisp.parse("(do " + script + " " + INSPECT + ")"));
+        var expected = new Commands().execute(ast);
+        var plan = Plan.compile(ast);
+        //Note: The same plan is executed twice to check that it doesn't
+        //retain any state between runs.
+        Assertions.assertEquals(expected, plan.execute(new Commands()));
+        Assertions.assertEquals(expected, plan.execute(new Commands()));
+    }
+
+    private static Stream<Arguments> testCompile() {
+        return Stream.of(
+            Arguments.of("Empty Deck", "(deal)"),
+            Arguments.of("Deck", "(deck :2S :10H :AC :7D) (deal)"),
+            Arguments.of("Blackjack", "(deal :JS :10H :AC :6D)"),
+            Arguments.of("Hit", "(deal :2S :10H :AC :7D :8S) (hit)"),
+            Arguments.of("Stand", "(deal :8S :10H :AC :7D) (stand)"),
+            Arguments.of("Split", "(deal :10S :10H :10C :7D :6S :QC :2H :3H) (split) (stand) (hit)"),
+            Arguments.of("Double Down", "(deal :2S :10H :AC :7D :6S) (double-down)"),
+            Arguments.of("Seed", "(deck :seed 7) (deal) (hit)"),
+            Arguments.of("Unknown", "(deal :2S :10H :AC :7D) (foo) (hit)")
+        );
+    }
+
+    private static final String INSPECT = "(inspect :deck) (inspect :player) (inspect :dealer) (inspect :error)";
+
+}
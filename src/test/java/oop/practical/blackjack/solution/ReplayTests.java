@@ -0,0 +1,74 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public final class ReplayTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testVerify(String name, String setup) {
+        var replay = new Replay();
+        for (var command : setup.strip().split("\n")) {
+            Assertions.assertDoesNotThrow(() -> replay.execute(command));
+        }
+        Assertions.assertNull(Assertions.assertDoesNotThrow(() -> Replay.verify(replay.getSeed(), replay.getSteps())));
+    }
+
+    private static Stream<Arguments> testVerify() {
+        return Stream.of(
+            Arguments.of("Deck", """
+                (deck)
+                (deal)
+                (hit)
+                (do (inspect :deck) (inspect :player) (inspect :dealer))
+                (deck)
+                (inspect :deck)
+                """),
+            Arguments.of("Shoe", """
+                (deck :shoe 2 1.0)
+                (deal)
+                (stand)
+                (deal)
+                (double-down)
+                (do (inspect :deck) (inspect :player) (inspect :dealer))
+                """),
+            Arguments.of("Custom Deck", """
+                (deal :2S :10H :AC :7D :6S)
+                (deck)
+                (inspect :deck)
+                """)
+        );
+    }
+
+    @Test
+    public void testVerifyMismatch() {
+        var replay = new Replay(1);
+        Assertions.assertDoesNotThrow(() -> replay.execute("(deck)"));
+        Assertions.assertDoesNotThrow(() -> replay.execute("(inspect :deck)"));
+        var steps = new ArrayList<>(replay.getSteps());
+        steps.set(1, new Replay.Step("(inspect :deck)", "Deck: 2S"));
+        Assertions.assertNotNull(Assertions.assertDoesNotThrow(() -> Replay.verify(1, steps)));
+    }
+
+    @Test
+    public void testSeed() {
+        //Note: A seeded deck is the same whatever the session's own seed is.
+        var first = new Replay(1);
+        var second = new Replay(2);
+        for (var replay : List.of(first, second)) {
+            Assertions.assertDoesNotThrow(() -> replay.execute("(deck :seed 42)"));
+            Assertions.assertDoesNotThrow(() -> replay.execute("(inspect :deck)"));
+        }
+        Assertions.assertEquals(first.getSteps(), second.getSteps());
+        Assertions.assertEquals("Deck set with shuffled cards.", first.getSteps().getFirst().output());
+    }
+
+}
@@ -0,0 +1,53 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Random sessions for tests that check a session carries on unchanged after
+ * being saved and brought back, through a {@link Snapshot} or a
+ * {@link Journal}.
+ */
+final class Sessions {
+
+    /**
+     * Everything a session shows, to compare two sessions by.
+     */
+    static final String STATE = "(do (inspect :deck) (inspect :player) (inspect :dealer) (inspect :error) (inspect :count))";
+
+    private static final String[] ACTIONS = {"(deal)", "(hit)", "(stand)", "(split)", "(double-down)"};
+
+    private Sessions() {}
+
+    static String action(SplittableRandom random) {
+        return ACTIONS[random.nextInt(ACTIONS.length)];
+    }
+
+    static void play(Journal journal, SplittableRandom random, int steps) throws ParseException, IOException {
+        for (var step = 0; step < steps; step++) {
+            execute(journal, action(random));
+        }
+    }
+
+    static String execute(Commands commands, String command) throws ParseException {
+        var ast = Lisp.parse(command);
+        try {
+            return commands.execute(ast);
+        } catch (RuntimeException e) {
+            //Note: Some actions throw before the first deal; both sessions should.
+            return e.toString();
+        }
+    }
+
+    static String execute(Journal journal, String command) throws ParseException, IOException {
+        try {
+            return journal.execute(command);
+        } catch (RuntimeException e) {
+            return e.toString();
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+
+public final class SimulatorTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testRun(String name, Supplier<Deck> deck, Strategy strategy) {
+        var statistics = new Simulator(deck.get(), strategy).run(100000);
+        Assertions.assertEquals(100000, statistics.rounds());
+        Assertions.assertEquals(statistics.hands(), statistics.wins() + statistics.losses() + statistics.pushes());
+        //Note: Only a sanity bound, the edge depends on the rules' quirks.
+        Assertions.assertTrue(Math.abs(statistics.expectedValue()) < 0.5, statistics.toString());
+        //Note: Same seed, same results.
+        Assertions.assertEquals(statistics, new Simulator(deck.get(), strategy).run(100000));
+    }
+
+    private static Stream<Arguments> testRun() {
+        Strategy aggressive = (game, hand) -> game.canSplit() ? Strategy.Action.SPLIT
+            : hand.size() == 2 && hand.getValue() <= 11 ? Strategy.Action.DOUBLE_DOWN
+            : Strategy.MIMIC_DEALER.decide(game, hand);
+        //Note: Stands on stiff hands when the shoe is rich in tens.
+        Strategy counting = (game, hand) -> hand.getValue() >= 12 && CountingSystem.HI_LO.getTrueCount(game.getDeck()) >= 2
+            ? Strategy.Action.STAND
+            : Strategy.MIMIC_DEALER.decide(game, hand);
+        return Stream.of(
+            Arguments.of("Deck", (Supplier<Deck>) () -> new Deck(new SplittableRandom(1)), Strategy.MIMIC_DEALER),
+            Arguments.of("Shoe", (Supplier<Deck>) () -> new Shoe(6, Shoe.DEFAULT_PENETRATION, new SplittableRandom(1)), Strategy.MIMIC_DEALER),
+            Arguments.of("Split & Double", (Supplier<Deck>) () -> new Deck(new SplittableRandom(1)), aggressive),
+            Arguments.of("Counting", (Supplier<Deck>) () -> new Shoe(6, Shoe.DEFAULT_PENETRATION, new SplittableRandom(1)), counting)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testRunParallel(String name, int workers) {
+        Function<RandomGenerator, Deck> shoe = random -> new Shoe(6, Shoe.DEFAULT_PENETRATION, random);
+        var statistics = Simulator.run(100001, workers, 1, shoe, Strategy.MIMIC_DEALER);
+        Assertions.assertEquals(100001, statistics.rounds());
+        //Note: Bit-identical for the same seed and worker count, however the
+        //tasks happen to be scheduled.
+        Assertions.assertEquals(statistics, Simulator.run(100001, workers, 1, shoe, Strategy.MIMIC_DEALER));
+    }
+
+    private static Stream<Arguments> testRunParallel() {
+        return Stream.of(
+            Arguments.of("Single", 1),
+            Arguments.of("Multiple", 4),
+            Arguments.of("Oversubscribed", 64)
+        );
+    }
+
+    @Test
+    public void testRunParallelSequential() {
+        //Note: A single worker plays the same rounds as a sequential run on
+        //the first stream split off the seed.
+        var expected = new Simulator(new Deck(new SplittableRandom(1).split()), Strategy.MIMIC_DEALER).run(10000);
+        Assertions.assertEquals(expected, Simulator.run(10000, 1, 1, Deck::new, Strategy.MIMIC_DEALER));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Simulator.run(10000, 0, 1, Deck::new, Strategy.MIMIC_DEALER));
+    }
+
+    @Test
+    public void testIllegalAction() {
+        var simulator = new Simulator(new Deck(new SplittableRandom(1)), (game, hand) -> Strategy.Action.SPLIT);
+        Assertions.assertThrows(IllegalStateException.class, () -> simulator.run(100));
+    }
+
+    @Test
+    public void testMerge() {
+        var a = new Statistics(1, 1, 1, 0, 0, 1.5, 2.25);
+        var b = new Statistics(1, 2, 0, 2, 0, -2, 4);
+        var merged = a.merge(b);
+        Assertions.assertEquals(new Statistics(2, 3, 1, 2, 0, -0.5, 6.25), merged);
+        Assertions.assertEquals(-0.25, merged.expectedValue());
+        Assertions.assertEquals(3.0625, merged.variance());
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testRoundCards(String name, int decks, int expected) {
+        Assertions.assertEquals(expected, Simulator.roundCards(decks));
+    }
+
+    private static Stream<Arguments> testRoundCards() {
+        return Stream.of(
+            //Note: Four each of A through 4 and three 5s, plus three last cards.
+            Arguments.of("Deck", 1, 22),
+            //Note: 24 aces and 16 twos, plus three last cards.
+            Arguments.of("Shoe", 6, 43),
+            Arguments.of("Large Shoe", 8, 47)
+        );
+    }
+
+}
@@ -0,0 +1,126 @@
+package oop.practical.blackjack.solution;
+
+import oop.practical.blackjack.lisp.Lisp;
+import oop.practical.blackjack.lisp.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+public final class SnapshotTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testRoundTrip(String name, String setup) throws ParseException {
+        //Note: After every action, a restored session shows the same state and
+        //plays on identically until the deck is next shuffled.
+        var random = new SplittableRandom(1);
+        var commands = new Commands(1);
+        commands.execute(Lisp.parse(setup));
+        for (var step = 0; step < 200; step++) {
+            var restored = new Commands(2);
+            restored.restore(commands.snapshot());
+            Assertions.assertEquals(Sessions.execute(commands, Sessions.STATE), Sessions.execute(restored, Sessions.STATE), "step " + step);
+            var action = Sessions.action(random);
+            var size = Sessions.execute(commands, "(inspect :deck)").length();
+            var result = Sessions.execute(commands, action);
+            if (Sessions.execute(commands, "(inspect :deck)").length() > size) {
+                break; //the shoe was reshuffled from each session's own generator
+            }
+            Assertions.assertEquals(result, Sessions.execute(restored, action), action + " at step " + step);
+            Assertions.assertEquals(Sessions.execute(commands, Sessions.STATE), Sessions.execute(restored, Sessions.STATE), action + " at step " + step);
+        }
+    }
+
+    private static Stream<Arguments> testRoundTrip() {
+        return Stream.of(
+            Arguments.of("Deck", "(deck :seed 1)"),
+            Arguments.of("Shoe", "(deck :shoe 2)"),
+            Arguments.of("Custom", "(deck :8S :8H :AC :7D :3S :2H :10D :AS :AH)"),
+            Arguments.of("Empty", "(do)")
+        );
+    }
+
+    @Test
+    public void testSplitAndDouble() throws ParseException {
+        var commands = new Commands(1);
+        Sessions.execute(commands, "(do (deal :8S :10C :8H :7D :3S :2H :10D :2C) (split) (double-down))");
+        var restored = new Commands(1);
+        restored.restore(commands.snapshot());
+        Assertions.assertEquals("""
+            Player (21): 8S, 3S, 10D (won)
+            Player (10): 8H, 2H (playing)""", Sessions.execute(restored, "(inspect :player)"));
+        //Note: The doubled flag survives, so the payout matches.
+        Assertions.assertEquals(Sessions.execute(commands, "(do (stand) (inspect :player) (inspect :dealer))"), Sessions.execute(restored, "(do (stand) (inspect :player) (inspect :dealer))"));
+    }
+
+    @Test
+    public void testSize() throws ParseException {
+        var commands = new Commands(1);
+        Sessions.execute(commands, "(do (deck :seed 1) (deal) (hit))");
+        //Note: 47 of these are the cards left in the deck.
+        Assertions.assertEquals(69, commands.snapshot().remaining());
+        var out = ByteBuffer.allocate(256);
+        commands.snapshot(out);
+        Assertions.assertEquals(commands.snapshot(), out.flip());
+    }
+
+    @Test
+    public void testLongError() throws ParseException {
+        //Note: Server takes lines of up to 64 KiB and an unknown command's
+        //error repeats its name, so an error can be longer than 65535 bytes.
+        var commands = new Commands(1);
+        var name = "x".repeat(70_000);
+        Sessions.execute(commands, "(" + name + ")");
+        var restored = new Commands(1);
+        restored.restore(commands.snapshot());
+        Assertions.assertEquals("Error: Unknown command: " + name + ".", Sessions.execute(restored, "(inspect :error)"));
+    }
+
+    @Test
+    public void testShoeReshuffle() {
+        //Note: The dealt cards aren't saved, but a restored shoe still has
+        //every card back after a reshuffle.
+        var shoe = Shoe.restore(2, 78, 100, new byte[] {0, 0, 51}, new SplittableRandom(1));
+        Assertions.assertEquals("Deck: 2H, 2H, AS", shoe.toString());
+        Assertions.assertEquals(100, shoe.getDealt());
+        shoe.reshuffle();
+        Assertions.assertEquals(2 * Card.COUNT, shoe.getSize());
+        for (var rank : Card.Rank.values()) {
+            Assertions.assertEquals(8, shoe.getRemaining(rank));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Shoe.restore(1, 39, 0, new byte[] {0, 0}, new SplittableRandom(1)));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testInvalid(String name, int index, int value) throws ParseException {
+        var commands = new Commands(1);
+        Sessions.execute(commands, "(do (deck :seed 1) (deal) (hit))");
+        var state = Sessions.execute(commands, Sessions.STATE);
+        var snapshot = commands.snapshot();
+        if (index < 0) {
+            snapshot.limit(snapshot.limit() + index);
+        } else {
+            snapshot.put(index, (byte) value);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> commands.restore(snapshot));
+        Assertions.assertEquals(state, Sessions.execute(commands, Sessions.STATE));
+    }
+
+    private static Stream<Arguments> testInvalid() {
+        return Stream.of(
+            Arguments.of("Truncated", -1, 0),
+            Arguments.of("Version", 0, 2),
+            Arguments.of("Error Length", 1, 0x7F),
+            Arguments.of("Card", 10, 52),
+            Arguments.of("Deck Size", 6, 0x7F)
+        );
+    }
+
+}
@@ -0,0 +1,126 @@
+package oop.practical.blackjack.solution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public final class TableTests {
+
+    private static final Pattern CARD = Pattern.compile("\\b(?:10|[2-9JQKA])[SHDC]\\b");
+
+    @Test
+    public void testRound() {
+        var deck = new Deck();
+        deck.clear();
+        for (var card : List.of("10H", "AC", "7D", "9S", "KD", "10C")) {
+            deck.addCard(Card.parse(card));
+        }
+        var table = new Table(2, deck);
+        Assertions.assertNull(table.deal());
+        Assertions.assertEquals("Player (19): 10H, 9S (playing)\nDealer (? + 10): ?, 10C", table.inspect(0));
+        //Note: The second seat was dealt a blackjack, so it has nothing to do.
+        Assertions.assertEquals("The hand is not in play.", table.hit(1));
+        Assertions.assertEquals("The round is still in play.", table.deal());
+        Assertions.assertEquals(19, table.getValue(0));
+        Assertions.assertEquals(-1, table.getValue(1));
+
+        Assertions.assertNull(table.stand(0));
+        Assertions.assertFalse(table.isInRound());
+        Assertions.assertEquals("Player (19): 10H, 9S (won)\nDealer (17): 7D, 10C", table.inspect(0));
+        Assertions.assertEquals("Player (21): AC, KD (won)\nDealer (17): 7D, 10C", table.inspect(1));
+        Assertions.assertEquals(new Statistics(1, 1, 1, 0, 0, 1, 1), table.getStatistics(0));
+        Assertions.assertEquals(new Statistics(1, 1, 1, 0, 0, 1.5, 2.25), table.getStatistics(1));
+        Assertions.assertEquals("Not enough cards to deal.", table.deal());
+    }
+
+    @Test
+    public void testSeats() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Table(0, new Deck()));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testConcurrentSeats(String name, int seats) throws InterruptedException, ExecutionException {
+        //Note: The counter isn't atomic, so it only adds up if every deal
+        //from the shoe is guarded.
+        var shoe = new Shoe(8, 0.5, new SplittableRandom(1)) {
+            private long dealt;
+
+            @Override
+            public int deal() {
+                dealt++;
+                return super.deal();
+            }
+        };
+        var table = new Table(seats, shoe);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var round = 0; round < 1000; round++) {
+                var before = shoe.dealt;
+                Assertions.assertNull(table.deal());
+                var tasks = new ArrayList<Callable<Void>>();
+                for (var i = 0; i < seats; i++) {
+                    var seat = i;
+                    tasks.add(() -> {
+                        play(table, seat);
+                        return null;
+                    });
+                }
+                for (Future<Void> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+                //Note: The last seat to finish settles the round before returning.
+                Assertions.assertFalse(table.isInRound());
+                var cards = countCards(table.inspect(0));
+                for (var i = 1; i < seats; i++) {
+                    cards += countCards(table.inspect(i).substring(0, table.inspect(i).indexOf("\nDealer")));
+                }
+                Assertions.assertEquals(shoe.dealt - before, cards, "round " + round);
+            }
+        }
+        for (var i = 0; i < seats; i++) {
+            var statistics = table.getStatistics(i);
+            Assertions.assertEquals(1000, statistics.rounds());
+            Assertions.assertEquals(statistics.hands(), statistics.wins() + statistics.losses() + statistics.pushes());
+        }
+    }
+
+    private static Stream<Arguments> testConcurrentSeats() {
+        return Stream.of(
+            Arguments.of("Single", 1),
+            Arguments.of("Full Table", 7),
+            Arguments.of("Crowded", 16)
+        );
+    }
+
+    /**
+     * Splits when it can, doubles on 10 and 11, and otherwise mimics the
+     * dealer, ignoring whichever actions aren't allowed.
+     */
+    private static void play(Table table, int seat) {
+        table.split(seat);
+        int value;
+        while ((value = table.getValue(seat)) != -1) {
+            if ((value == 10 || value == 11) && table.doubleDown(seat) == null) {
+                continue;
+            }
+            Assertions.assertNull(value < 17 ? table.hit(seat) : table.stand(seat));
+        }
+    }
+
+    private static int countCards(String inspect) {
+        return (int) CARD.matcher(inspect).results().count();
+    }
+
+}